@@ -0,0 +1,54 @@
+package com.example.cache;
+
+import org.springframework.http.HttpHeaders;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Директивы Cache-Control, влияющие на кэш gateway
+ *
+ * @param noStore  no-store: ответ нельзя сохранять и раздавать другим запросам
+ * @param noCache  no-cache: перед каждым использованием ответ нужно перепроверить
+ * @param isPrivate private: ответ предназначен одному пользователю
+ * @param maxAge   s-maxage или max-age, null если не указан
+ */
+public record CacheDirectives(boolean noStore, boolean noCache, boolean isPrivate, Duration maxAge) {
+
+    private static final CacheDirectives NONE = new CacheDirectives(false, false, false, null);
+
+    public static CacheDirectives of(HttpHeaders headers) {
+        String value = headers.getCacheControl();
+        if (value == null || value.isBlank()) {
+            return NONE;
+        }
+        boolean noStore = false;
+        boolean noCache = false;
+        boolean isPrivate = false;
+        Duration maxAge = null;
+        Duration sharedMaxAge = null;
+        for (String directive : value.split(",")) {
+            String d = directive.trim().toLowerCase(Locale.ROOT);
+            if (d.equals("no-store")) {
+                noStore = true;
+            } else if (d.equals("no-cache") || d.startsWith("no-cache=")) {
+                noCache = true;
+            } else if (d.equals("private") || d.startsWith("private=")) {
+                isPrivate = true;
+            } else if (d.startsWith("max-age=")) {
+                maxAge = seconds(d.substring("max-age=".length()));
+            } else if (d.startsWith("s-maxage=")) {
+                sharedMaxAge = seconds(d.substring("s-maxage=".length()));
+            }
+        }
+        return new CacheDirectives(noStore, noCache, isPrivate, sharedMaxAge != null ? sharedMaxAge : maxAge);
+    }
+
+    private static Duration seconds(String value) {
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(value.replace("\"", ""))));
+        } catch (NumberFormatException ex) {
+            return Duration.ZERO;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.cache;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+
+/**
+ * Сохранённый ответ upstream
+ *
+ * @param status        статус ответа
+ * @param headers       заголовки без hop-by-hop и Content-Length
+ * @param body          тело ответа
+ * @param etag          ETag ответа или null
+ * @param storedAtNanos время получения ответа (System.nanoTime)
+ * @param freshNanos    сколько ответ можно отдавать без перепроверки; 0 — только после If-None-Match
+ */
+public record CachedResponse(
+        HttpStatusCode status,
+        HttpHeaders headers,
+        byte[] body,
+        String etag,
+        long storedAtNanos,
+        long freshNanos
+) {
+    public boolean isFresh(long nowNanos) {
+        return nowNanos - storedAtNanos < freshNanos;
+    }
+
+    /**
+     * Тот же ответ, подтверждённый upstream через 304 Not Modified
+     */
+    public CachedResponse revalidated(long nowNanos, long freshNanos) {
+        return new CachedResponse(status, headers, body, etag, nowNanos, freshNanos);
+    }
+}
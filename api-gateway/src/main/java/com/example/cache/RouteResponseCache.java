@@ -0,0 +1,116 @@
+package com.example.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Кэш ответов одного маршрута и реестр запросов, которые сейчас выполняются в upstream.
+ * <p>
+ * Запись хранится {@code freshNanos}, а при наличии ETag ещё {@code revalidationWindow}:
+ * устаревшая запись с ETag перепроверяется условным запросом, и при 304 тело берётся из кэша.
+ * <p>
+ * Метрики: gateway.response.cache{route, result=hit|miss|coalesced|revalidated|bypass}
+ * и gateway.response.cache.size{route}.
+ */
+public class RouteResponseCache {
+
+    private final Cache<String, CachedResponse> entries;
+    private final ConcurrentHashMap<String, CompletableFuture<CachedResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter coalesced;
+    private final Counter revalidated;
+    private final Counter bypassed;
+
+    public RouteResponseCache(String routeId, long maxEntries, Duration revalidationWindow, MeterRegistry meterRegistry) {
+        long revalidationNanos = revalidationWindow.toNanos();
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(new Expiry<String, CachedResponse>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedResponse value, long currentTime) {
+                        return value.freshNanos() + (value.etag() != null ? revalidationNanos : 0);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedResponse value, long currentTime,
+                                                  long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedResponse value, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+        this.hits = counter(meterRegistry, routeId, "hit");
+        this.misses = counter(meterRegistry, routeId, "miss");
+        this.coalesced = counter(meterRegistry, routeId, "coalesced");
+        this.revalidated = counter(meterRegistry, routeId, "revalidated");
+        this.bypassed = counter(meterRegistry, routeId, "bypass");
+        Gauge.builder("gateway.response.cache.size", entries, Cache::estimatedSize)
+                .description("Cached responses per route")
+                .tag("route", routeId)
+                .register(meterRegistry);
+    }
+
+    public CachedResponse get(String key) {
+        return entries.getIfPresent(key);
+    }
+
+    public void put(String key, CachedResponse response) {
+        entries.put(key, response);
+    }
+
+    /**
+     * Регистрирует запрос в upstream для ключа
+     * @param key ключ запроса
+     * @param leader future, который завершит выполняющий запрос
+     * @return future уже выполняющегося запроса с тем же ключом или null, если вызывающий стал ведущим
+     */
+    public CompletableFuture<CachedResponse> join(String key, CompletableFuture<CachedResponse> leader) {
+        return inFlight.putIfAbsent(key, leader);
+    }
+
+    public void leave(String key, CompletableFuture<CachedResponse> leader) {
+        inFlight.remove(key, leader);
+    }
+
+    public void recordHit() {
+        hits.increment();
+    }
+
+    public void recordMiss() {
+        misses.increment();
+    }
+
+    public void recordCoalesced() {
+        coalesced.increment();
+    }
+
+    public void recordRevalidated() {
+        revalidated.increment();
+    }
+
+    public void recordBypass() {
+        bypassed.increment();
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String routeId, String result) {
+        return Counter.builder("gateway.response.cache")
+                .description("Cacheable GET requests by cache outcome")
+                .tag("route", routeId)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.config;
+
+import com.example.limit.RequestPriority;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Приоритеты запросов для фильтра AdaptiveConcurrencyLimit.
+ * Правило — строка "METHOD /pattern" или "/pattern" (любой метод); первое совпадение выигрывает.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "gateway.concurrency-limit")
+public class ConcurrencyLimitConfig {
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    /**
+     * Запросы, которые отклоняются последними (обновление токена, чтение заказов)
+     */
+    private List<String> critical = new ArrayList<>();
+
+    /**
+     * Запросы, которые отклоняются первыми (пакетные и административные)
+     */
+    private List<String> bulk = new ArrayList<>();
+
+    /**
+     * Доля лимита маршрута, доступная классу приоритета
+     */
+    private Map<RequestPriority, Double> shares = new EnumMap<>(Map.of(
+            RequestPriority.CRITICAL, 1.0,
+            RequestPriority.NORMAL, 0.9,
+            RequestPriority.BULK, 0.5));
+
+    public RequestPriority priorityOf(ServerHttpRequest request) {
+        if (matches(critical, request)) {
+            return RequestPriority.CRITICAL;
+        }
+        if (matches(bulk, request)) {
+            return RequestPriority.BULK;
+        }
+        return RequestPriority.NORMAL;
+    }
+
+    public double shareOf(RequestPriority priority) {
+        return shares.getOrDefault(priority, 1.0);
+    }
+
+    private static boolean matches(List<String> rules, ServerHttpRequest request) {
+        String path = request.getPath().value();
+        String method = request.getMethod().name();
+        for (String rule : rules) {
+            int space = rule.indexOf(' ');
+            if (space < 0 ? PATH_MATCHER.match(rule, path)
+                    : rule.regionMatches(true, 0, method, 0, space) && space == method.length()
+                    && PATH_MATCHER.match(rule.substring(space + 1).trim(), path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "gateway.auth")
+public class GatewayAuthConfig {
+
+    /**
+     * JWKS auth-service с публичными ключами подписи
+     */
+    private String jwksUri;
+
+    /**
+     * Ожидаемый issuer токенов
+     */
+    private String issuer;
+
+    /**
+     * Пути, пропускаемые без токена
+     */
+    private List<String> publicPaths = new ArrayList<>(List.of("/api/auth/**"));
+
+    /**
+     * Заголовок с API-ключом клиента без токена пользователя
+     */
+    private String apiKeyHeader = "X-Api-Key";
+
+    /**
+     * Выданные API-ключи. Запрос с одним из них проходит на закрытые пути без токена,
+     * но без заголовков пользователя X-Auth-*; квота rate limit'а считается на ключ
+     */
+    private Set<String> apiKeys = new HashSet<>();
+
+    /**
+     * Период обновления JWKS
+     */
+    private Duration jwksRefreshInterval = Duration.ofMinutes(5);
+
+    /**
+     * Минимальный интервал между внеплановыми обновлениями JWKS при неизвестном kid
+     */
+    private Duration jwksMinRefreshInterval = Duration.ofSeconds(30);
+
+    /**
+     * Максимальное количество закэшированных проверенных токенов
+     */
+    private int tokenCacheMaxEntries = 100_000;
+
+    /**
+     * Проверка отзыва токенов в auth-service по gRPC после локальной проверки подписи
+     */
+    private Introspection introspection = new Introspection();
+
+    @Data
+    public static class Introspection {
+
+        /**
+         * Включает проверку: каждый новый токен и затем раз в cache-ttl — вызов auth-service.
+         * Без неё отозванный через logout-all токен принимается сервисами за gateway до истечения
+         */
+        private boolean enabled = false;
+
+        /**
+         * Имя канала spring.grpc.client.channels
+         */
+        private String channel = "auth-service";
+
+        /**
+         * Сервисный токен для auth-service, передаётся в метаданных x-service-token
+         */
+        private String serviceToken;
+
+        /**
+         * Deadline одного вызова
+         */
+        private Duration deadline = Duration.ofMillis(300);
+
+        /**
+         * Сколько gateway помнит результат проверки токена
+         */
+        private Duration cacheTtl = Duration.ofSeconds(5);
+
+        /**
+         * Сколько после последнего ответа auth-service пропускать локально проверенный токен,
+         * если auth-service недоступен; дальше и до первого ответа — 503. 0 — не пропускать никогда
+         */
+        private Duration failOpenGrace = Duration.ofSeconds(10);
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Настройки in-memory rate limiter'а (фильтр RequestRateLimiter с {@code #{@inMemoryRateLimiter}}).
+ * Квота маршрута задаётся аргументами фильтра {@code in-memory-rate-limiter.*},
+ * значения отсюда используются для маршрутов без своей квоты.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "gateway.rate-limit")
+public class RateLimitConfig {
+
+    /**
+     * Токенов в секунду на клиента
+     */
+    private int replenishRate = 10;
+
+    /**
+     * Ёмкость bucket'а: сколько запросов клиент может сделать подряд после паузы
+     */
+    private int burstCapacity = 20;
+
+    /**
+     * Стоимость одного запроса в токенах
+     */
+    private int requestedTokens = 1;
+
+    /**
+     * Число шардов таблицы bucket'ов маршрута
+     */
+    private int shards = 16;
+
+    /**
+     * Максимум bucket'ов на маршрут; в заполненном шарде новый клиент вытесняет bucket,
+     * к которому дольше всех не обращались
+     */
+    private int maxBuckets = 100_000;
+
+    /**
+     * Сколько bucket должен быть полным, чтобы его удалили
+     */
+    private Duration idleTimeout = Duration.ofMinutes(1);
+}
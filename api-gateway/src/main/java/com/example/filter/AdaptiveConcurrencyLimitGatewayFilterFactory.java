@@ -0,0 +1,163 @@
+package com.example.filter;
+
+import com.example.config.ConcurrencyLimitConfig;
+import com.example.limit.AdaptiveConcurrencyLimiter;
+import com.example.limit.AdaptiveConcurrencyLimiter.Outcome;
+import com.example.limit.RequestPriority;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Адаптивное ограничение одновременных запросов к upstream маршрута
+ * (см. {@link AdaptiveConcurrencyLimiter}). Запрос сверх доли лимита своего приоритета
+ * сразу получает 503 с Retry-After, не занимая соединение с upstream.
+ * <p>
+ * Задержка измеряется до фиксации ответа клиенту (beforeCommit): заголовки upstream получены
+ * и отправляется первый фрагмент тела, так что время передачи длинного тела медленному клиенту
+ * в задержку upstream не попадает. Место в лимите освобождается, когда ответ передан целиком.
+ * Если ответ не был зафиксирован (ошибка, отмена), берётся время до завершения.
+ * Ответы из кэша gateway (фильтр ResponseCache выполняется раньше) место в лимите не занимают.
+ * <p>
+ * Метрики: gateway.concurrency.limit{route}, gateway.concurrency.in.flight{route},
+ * gateway.concurrency.requests{route, priority, outcome=accepted|rejected}.
+ */
+@Component
+public class AdaptiveConcurrencyLimitGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<AdaptiveConcurrencyLimitGatewayFilterFactory.Config> {
+
+    private final ConcurrencyLimitConfig limitConfig;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, AdaptiveConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+
+    public AdaptiveConcurrencyLimitGatewayFilterFactory(ConcurrencyLimitConfig limitConfig, MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.limitConfig = limitConfig;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String routeId = config.getRouteId() != null ? config.getRouteId() : "unknown";
+        AdaptiveConcurrencyLimiter limiter = limiters.computeIfAbsent(routeId, id -> newLimiter(id, config));
+        Map<RequestPriority, Counter> accepted = counters(routeId, "accepted");
+        Map<RequestPriority, Counter> rejected = counters(routeId, "rejected");
+
+        return (exchange, chain) -> {
+            RequestPriority priority = limitConfig.priorityOf(exchange.getRequest());
+            int inFlightAtStart = limiter.tryAcquire(limitConfig.shareOf(priority));
+            if (inFlightAtStart < 0) {
+                rejected.get(priority).increment();
+                ServerHttpResponse response = exchange.getResponse();
+                response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+                response.getHeaders().set(HttpHeaders.RETRY_AFTER, config.getRetryAfter());
+                return response.setComplete();
+            }
+            accepted.get(priority).increment();
+            long start = System.nanoTime();
+            AtomicLong rttNanos = new AtomicLong(-1);
+            exchange.getResponse().beforeCommit(() -> {
+                rttNanos.compareAndSet(-1, System.nanoTime() - start);
+                return Mono.empty();
+            });
+            return chain.filter(exchange)
+                    .doFinally(signal -> {
+                        rttNanos.compareAndSet(-1, System.nanoTime() - start);
+                        limiter.release(rttNanos.get(), inFlightAtStart,
+                                outcome(signal, exchange.getResponse().getStatusCode()));
+                    });
+        };
+    }
+
+    private static Outcome outcome(SignalType signal, HttpStatusCode status) {
+        if (signal == SignalType.CANCEL) {
+            return Outcome.IGNORED;
+        }
+        if (signal == SignalType.ON_ERROR) {
+            return Outcome.OVERLOAD;
+        }
+        if (status != null && (status.value() == 502 || status.value() == 503 || status.value() == 504)) {
+            return Outcome.OVERLOAD;
+        }
+        return Outcome.SUCCESS;
+    }
+
+    private AdaptiveConcurrencyLimiter newLimiter(String routeId, Config config) {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(config.getInitialLimit(),
+                config.getMinLimit(), config.getMaxLimit(), config.getTolerance(), config.getSmoothing(),
+                config.getBackoffRatio());
+        Gauge.builder("gateway.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::limit)
+                .description("Current adaptive concurrency limit")
+                .tag("route", routeId)
+                .register(meterRegistry);
+        Gauge.builder("gateway.concurrency.in.flight", limiter, AdaptiveConcurrencyLimiter::inFlight)
+                .description("Requests in flight to the upstream")
+                .tag("route", routeId)
+                .register(meterRegistry);
+        return limiter;
+    }
+
+    private Map<RequestPriority, Counter> counters(String routeId, String outcome) {
+        Map<RequestPriority, Counter> counters = new EnumMap<>(RequestPriority.class);
+        for (RequestPriority priority : RequestPriority.values()) {
+            counters.put(priority, Counter.builder("gateway.concurrency.requests")
+                    .description("Requests admitted or shed by the concurrency limiter")
+                    .tag("route", routeId)
+                    .tag("priority", priority.name().toLowerCase())
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+        return counters;
+    }
+
+    @Data
+    public static class Config implements HasRouteId {
+
+        private String routeId;
+
+        /**
+         * Лимит при старте
+         */
+        private int initialLimit = 20;
+
+        private int minLimit = 4;
+
+        private int maxLimit = 500;
+
+        /**
+         * Во сколько раз короткая задержка может превысить базовую, прежде чем лимит начнёт снижаться
+         */
+        private double tolerance = 1.5;
+
+        /**
+         * Доля нового значения при пересчёте лимита (0..1]
+         */
+        private double smoothing = 0.2;
+
+        /**
+         * Множитель лимита при 502/503/504 или ошибке upstream
+         */
+        private double backoffRatio = 0.9;
+
+        /**
+         * Значение Retry-After для отклонённых запросов, секунды
+         */
+        private String retryAfter = "1";
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.filter;
+
+import com.example.config.GatewayAuthConfig;
+import com.example.security.AuthIntrospectionClient;
+import com.example.security.JwtTokenVerifier;
+import com.example.security.VerifiedToken;
+import io.jsonwebtoken.JwtException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Проверяет bearer токены на входе в gateway и передаёт проверенные данные
+ * пользователя в сервисы заголовками X-Auth-*. Одноимённые заголовки
+ * из входящего запроса всегда удаляются, чтобы их нельзя было подделать.
+ * Запрос без токена, но с выданным API-ключом ({@code gateway.auth.api-keys}) проходит
+ * без заголовков пользователя: сервисы видят его как клиента без пользователя.
+ * <p>
+ * По умолчанию токен проверяется только локально (подпись по JWKS, срок, issuer): отзыв через
+ * logout-all и отзыв ролей действует в auth-service через эпохи токенов, а остальные сервисы
+ * принимают токен до истечения {@code jwt.access-expiration}. При
+ * {@code gateway.auth.introspection.enabled} локально проверенный токен дополнительно проверяется
+ * в auth-service; если тот не ответил, токен пропускается только в окне
+ * {@code gateway.auth.introspection.fail-open-grace} после его последнего ответа, иначе 503.
+ */
+@Slf4j
+@Component
+public class JwtAuthenticationGlobalFilter implements GlobalFilter, Ordered {
+
+    public static final String SUBJECT_HEADER = "X-Auth-Subject";
+    public static final String USER_ID_HEADER = "X-Auth-User-Id";
+    public static final String ROLES_HEADER = "X-Auth-Roles";
+
+    private static final String BEARER_PREFIX = "Bearer";
+
+    private final JwtTokenVerifier tokenVerifier;
+    private final GatewayAuthConfig config;
+    private final AuthIntrospectionClient introspectionClient;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public JwtAuthenticationGlobalFilter(JwtTokenVerifier tokenVerifier, GatewayAuthConfig config,
+                                         ObjectProvider<AuthIntrospectionClient> introspectionClient) {
+        this.tokenVerifier = tokenVerifier;
+        this.config = config;
+        this.introspectionClient = introspectionClient.getIfAvailable();
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String path = request.getPath().value();
+
+        if (isPublic(path)) {
+            return chain.filter(withoutTrustedHeaders(exchange));
+        }
+
+        String authHeader = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authHeader == null || !authHeader.startsWith(BEARER_PREFIX)) {
+            return hasIssuedApiKey(request) ? chain.filter(withoutTrustedHeaders(exchange)) : reject(exchange);
+        }
+
+        String token = authHeader.substring(BEARER_PREFIX.length()).trim();
+        VerifiedToken verified;
+        try {
+            verified = tokenVerifier.verify(token);
+        } catch (JwtException | IllegalArgumentException ex) {
+            log.debug("Rejected token for {}: {}", path, ex.getMessage());
+            return reject(exchange);
+        }
+
+        ServerWebExchange authenticated = exchange.mutate()
+                .request(builder -> builder.headers(headers -> {
+                    removeTrustedHeaders(headers);
+                    headers.set(SUBJECT_HEADER, verified.subject());
+                    if (verified.userId() != null) {
+                        headers.set(USER_ID_HEADER, verified.userId().toString());
+                    }
+                    headers.set(ROLES_HEADER, String.join(",", verified.roles()));
+                }))
+                .build();
+        if (introspectionClient == null) {
+            return chain.filter(authenticated);
+        }
+        return introspectionClient.isActive(token)
+                .map(active -> active ? HttpStatus.OK : HttpStatus.UNAUTHORIZED)
+                .onErrorResume(ex -> {
+                    log.warn("Token introspection failed for {}: {}", path, ex.getMessage());
+                    return Mono.just(introspectionClient.withinFailOpenGrace() ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE);
+                })
+                .flatMap(status -> status == HttpStatus.OK ? chain.filter(authenticated) : reject(exchange, status));
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 10;
+    }
+
+    private boolean isPublic(String path) {
+        for (String pattern : config.getPublicPaths()) {
+            if (pathMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean hasIssuedApiKey(ServerHttpRequest request) {
+        String apiKey = request.getHeaders().getFirst(config.getApiKeyHeader());
+        return apiKey != null && !apiKey.isBlank() && config.getApiKeys().contains(apiKey);
+    }
+
+    private static ServerWebExchange withoutTrustedHeaders(ServerWebExchange exchange) {
+        HttpHeaders headers = exchange.getRequest().getHeaders();
+        if (!headers.containsKey(SUBJECT_HEADER) && !headers.containsKey(USER_ID_HEADER)
+                && !headers.containsKey(ROLES_HEADER)) {
+            return exchange;
+        }
+        return exchange.mutate()
+                .request(builder -> builder.headers(JwtAuthenticationGlobalFilter::removeTrustedHeaders))
+                .build();
+    }
+
+    private static void removeTrustedHeaders(HttpHeaders headers) {
+        headers.remove(SUBJECT_HEADER);
+        headers.remove(USER_ID_HEADER);
+        headers.remove(ROLES_HEADER);
+    }
+
+    private static Mono<Void> reject(ServerWebExchange exchange) {
+        return reject(exchange, HttpStatus.UNAUTHORIZED);
+    }
+
+    private static Mono<Void> reject(ServerWebExchange exchange, HttpStatus status) {
+        exchange.getResponse().setStatusCode(status);
+        return exchange.getResponse().setComplete();
+    }
+}
@@ -0,0 +1,278 @@
+package com.example.filter;
+
+import com.example.cache.CacheDirectives;
+import com.example.cache.CachedResponse;
+import com.example.cache.RouteResponseCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Кэш GET-ответов и объединение одинаковых одновременных GET-запросов для маршрута.
+ * Включается на маршруте фильтром {@code ResponseCache}.
+ * <p>
+ * Пока запрос с ключом выполняется в upstream, такие же запросы ждут его ответ и получают копию,
+ * а не идут в upstream сами. Ключ — путь с query, Accept и (по умолчанию) X-Auth-Subject,
+ * поэтому ответы разных пользователей не смешиваются.
+ * <p>
+ * Сохраняются ответы 200 без Set-Cookie и no-store. Срок свежести — s-maxage/max-age ответа,
+ * но не больше {@code ttl} маршрута; без max-age — {@code ttl}; no-cache — 0. Запись с ETag после
+ * истечения перепроверяется запросом с If-None-Match; If-None-Match клиента, совпавший с ETag
+ * свежей записи, получает 304. Ответ буферизуется целиком, поэтому фильтр рассчитан на небольшие
+ * горячие ответы (статусы заказов, каталог).
+ */
+@Component
+public class ResponseCacheGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<ResponseCacheGatewayFilterFactory.Config> {
+
+    static final String CACHE_STATUS_HEADER = "X-Cache";
+
+    private static final List<String> UNCACHED_HEADERS = List.of(
+            HttpHeaders.CONTENT_LENGTH, HttpHeaders.TRANSFER_ENCODING, HttpHeaders.CONNECTION,
+            "Keep-Alive", HttpHeaders.AGE, CACHE_STATUS_HEADER);
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, RouteResponseCache> caches = new ConcurrentHashMap<>();
+
+    public ResponseCacheGatewayFilterFactory(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String routeId = config.getRouteId() != null ? config.getRouteId() : "unknown";
+        RouteResponseCache cache = caches.computeIfAbsent(routeId, id ->
+                new RouteResponseCache(id, config.getMaxEntries(), config.getRevalidationWindow(), meterRegistry));
+        // Раньше NettyWriteResponseFilter: он пишет ответ в тот exchange, который получил
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            if (request.getMethod() != HttpMethod.GET) {
+                return chain.filter(exchange);
+            }
+            CacheDirectives requestDirectives = CacheDirectives.of(request.getHeaders());
+            if (requestDirectives.noStore() || requestDirectives.noCache()) {
+                cache.recordBypass();
+                return chain.filter(exchange);
+            }
+
+            String key = key(request, config);
+            CachedResponse cached = cache.get(key);
+            if (cached != null && cached.isFresh(System.nanoTime())) {
+                cache.recordHit();
+                return write(exchange, cached, "HIT");
+            }
+
+            CompletableFuture<CachedResponse> leader = new CompletableFuture<>();
+            CompletableFuture<CachedResponse> running = cache.join(key, leader);
+            if (running != null) {
+                cache.recordCoalesced();
+                // Ответ, который нельзя раздавать (не 200, no-store, ошибка), запрашивается самостоятельно
+                return Mono.fromFuture(running, true)
+                        .map(Optional::of)
+                        .defaultIfEmpty(Optional.empty())
+                        .flatMap(response -> response.isPresent()
+                                ? write(exchange, response.get(), "COALESCED")
+                                : chain.filter(exchange));
+            }
+
+            boolean revalidate = cached != null && cached.etag() != null
+                    && !request.getHeaders().containsKey(HttpHeaders.IF_NONE_MATCH);
+            ServerWebExchange upstream = exchange.mutate()
+                    .request(revalidate
+                            ? request.mutate().header(HttpHeaders.IF_NONE_MATCH, cached.etag()).build()
+                            : request)
+                    .response(new CachingResponse(exchange.getResponse(), key, cache, config,
+                            revalidate ? cached : null, leader))
+                    .build();
+            if (!revalidate) {
+                cache.recordMiss();
+            }
+            return chain.filter(upstream)
+                    .doFinally(signal -> {
+                        leader.complete(null);
+                        cache.leave(key, leader);
+                    });
+        }, NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1);
+    }
+
+    private static String key(ServerHttpRequest request, Config config) {
+        HttpHeaders headers = request.getHeaders();
+        StringBuilder key = new StringBuilder(request.getURI().getRawPath());
+        if (request.getURI().getRawQuery() != null) {
+            key.append('?').append(request.getURI().getRawQuery());
+        }
+        key.append('|').append(String.join(",", headers.getOrEmpty(HttpHeaders.ACCEPT)));
+        if (config.isVaryBySubject()) {
+            String subject = headers.getFirst(JwtAuthenticationGlobalFilter.SUBJECT_HEADER);
+            key.append('|').append(subject != null ? subject : "");
+        }
+        return key.toString();
+    }
+
+    private static Mono<Void> write(ServerWebExchange exchange, CachedResponse cached, String cacheStatus) {
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = response.getHeaders();
+        headers.putAll(cached.headers());
+        headers.set(CACHE_STATUS_HEADER, cacheStatus);
+        headers.set(HttpHeaders.AGE, Long.toString(
+                TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - cached.storedAtNanos())));
+        if (cached.etag() != null
+                && exchange.getRequest().getHeaders().getIfNoneMatch().contains(cached.etag())) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return response.setComplete();
+        }
+        response.setStatusCode(cached.status());
+        headers.setContentLength(cached.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+    }
+
+    /**
+     * Буферизует ответ upstream, сохраняет его в кэш и передаёт ожидающим запросам
+     */
+    private static final class CachingResponse extends ServerHttpResponseDecorator {
+
+        private final String key;
+        private final RouteResponseCache cache;
+        private final Config config;
+        private final CachedResponse revalidating;
+        private final CompletableFuture<CachedResponse> leader;
+
+        CachingResponse(ServerHttpResponse delegate, String key, RouteResponseCache cache, Config config,
+                        CachedResponse revalidating, CompletableFuture<CachedResponse> leader) {
+            super(delegate);
+            this.key = key;
+            this.cache = cache;
+            this.config = config;
+            this.revalidating = revalidating;
+            this.leader = leader;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpStatusCode status = getStatusCode();
+            HttpHeaders headers = getHeaders();
+            CacheDirectives directives = CacheDirectives.of(headers);
+
+            if (revalidating != null && status != null && status.value() == HttpStatus.NOT_MODIFIED.value()) {
+                cache.recordRevalidated();
+                CachedResponse refreshed = revalidating.revalidated(System.nanoTime(), freshNanos(directives));
+                cache.put(key, refreshed);
+                leader.complete(refreshed);
+                headers.clear();
+                headers.putAll(refreshed.headers());
+                headers.set(CACHE_STATUS_HEADER, "REVALIDATED");
+                headers.setContentLength(refreshed.body().length);
+                setStatusCode(refreshed.status());
+                return Flux.from(body).doOnNext(DataBufferUtils::release)
+                        .then(super.writeWith(Mono.just(bufferFactory().wrap(refreshed.body()))));
+            }
+            if (revalidating != null) {
+                cache.recordMiss();
+            }
+            long contentLength = headers.getContentLength();
+            if (status == null || status.value() != HttpStatus.OK.value() || directives.noStore()
+                    || (directives.isPrivate() && !config.isVaryBySubject())
+                    || headers.containsKey(HttpHeaders.SET_COOKIE) || headers.getVary().contains("*")
+                    || contentLength > config.getMaxBodySize().toBytes()) {
+                leader.complete(null);
+                return super.writeWith(body);
+            }
+
+            return DataBufferUtils.join(body).flatMap(joined -> {
+                byte[] bytes = new byte[joined.readableByteCount()];
+                joined.read(bytes);
+                DataBufferUtils.release(joined);
+
+                HttpHeaders stored = new HttpHeaders();
+                stored.putAll(headers);
+                UNCACHED_HEADERS.forEach(stored::remove);
+                CachedResponse response = new CachedResponse(status, HttpHeaders.readOnlyHttpHeaders(stored), bytes,
+                        headers.getETag(), System.nanoTime(), freshNanos(directives));
+                if (bytes.length <= config.getMaxBodySize().toBytes()
+                        && (response.freshNanos() > 0 || response.etag() != null)) {
+                    cache.put(key, response);
+                }
+                leader.complete(response);
+                headers.set(CACHE_STATUS_HEADER, "MISS");
+                return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+            });
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            leader.complete(null);
+            return super.writeAndFlushWith(body);
+        }
+
+        private long freshNanos(CacheDirectives directives) {
+            if (directives.noCache()) {
+                return 0;
+            }
+            Duration ttl = config.getTtl();
+            if (directives.maxAge() != null && directives.maxAge().compareTo(ttl) < 0) {
+                ttl = directives.maxAge();
+            }
+            return ttl.toNanos();
+        }
+    }
+
+    @Data
+    public static class Config implements HasRouteId {
+
+        private String routeId;
+
+        /**
+         * Максимальный срок свежести ответа; используется, если upstream не указал max-age
+         */
+        private Duration ttl = Duration.ofSeconds(5);
+
+        /**
+         * Сколько хранить устаревший ответ с ETag для перепроверки через If-None-Match
+         */
+        private Duration revalidationWindow = Duration.ofMinutes(1);
+
+        /**
+         * Максимальное количество ответов маршрута в кэше
+         */
+        private long maxEntries = 10_000;
+
+        /**
+         * Ответы больше этого размера не кэшируются
+         */
+        private DataSize maxBodySize = DataSize.ofKilobytes(256);
+
+        /**
+         * Разделять кэш по пользователю (X-Auth-Subject); отключать только для маршрутов
+         * с одинаковыми для всех ответами
+         */
+        private boolean varyBySubject = true;
+    }
+}
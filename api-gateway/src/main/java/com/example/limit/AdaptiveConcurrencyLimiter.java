@@ -0,0 +1,176 @@
+package com.example.limit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Адаптивный лимит одновременных запросов к upstream по градиенту задержки.
+ * <p>
+ * Хранятся две средние задержки: короткая (средняя за последнюю порцию из {@link #SAMPLE_BATCH}
+ * ответов) и длинная (экспоненциальная средняя по порциям, базовая задержка без очереди). Пока
+ * короткая не превышает длинную больше чем в {@code tolerance} раз, лимит растёт на sqrt(limit);
+ * когда upstream начинает копить очередь, лимит уменьшается пропорционально отношению задержек
+ * (не больше чем вдвое за шаг). Во время перегрузки длинная средняя впитывает новые задержки
+ * в десять раз медленнее, иначе очередь за несколько сотен запросов стала бы новой базой
+ * и лимит перестал бы снижаться. Ответ 5xx перегрузки или таймаут уменьшает лимит
+ * мультипликативно (AIMD). Лимит не растёт, если за порцию ни разу не было занято больше
+ * половины: без нагрузки задержка ничего не говорит о запасе, но снижаться может и тогда.
+ * <p>
+ * {@link #release} вызывается на потоке event loop для каждого ответа и не блокируется:
+ * задержки копятся в {@link LongAdder}, лимит меняется CAS. Порцию пересчитывает поток,
+ * захвативший {@link ReentrantLock#tryLock()}; остальные в это время только добавляют задержки.
+ * <p>
+ * Запрос сверх доли лимита своего приоритета отклоняется сразу, очереди нет.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    static final int SAMPLE_BATCH = 10;
+    private static final double LONG_WINDOW = 60;
+    private static final double CONGESTED_LONG_WINDOW = LONG_WINDOW * 10;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final double backoffRatio;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong limitBits;
+
+    private final LongAdder rttSum = new LongAdder();
+    private final LongAdder samples = new LongAdder();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private final ReentrantLock updateLock = new ReentrantLock();
+    // Только под updateLock
+    private double longRtt;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit,
+                                      double tolerance, double smoothing, double backoffRatio) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Invalid limit range: " + minLimit + ".." + maxLimit);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.backoffRatio = backoffRatio;
+        this.limitBits = new AtomicLong(Double.doubleToRawLongBits(Math.clamp(initialLimit, minLimit, maxLimit)));
+    }
+
+    /**
+     * @param share доля лимита, доступная приоритету запроса
+     * @return число запросов в работе на момент захвата (включая этот) или -1, если лимит исчерпан
+     */
+    public int tryAcquire(double share) {
+        int allowed = Math.max(1, (int) (currentLimit() * share));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                return -1;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+
+    /**
+     * Освобождает место и учитывает результат запроса
+     * @param rttNanos    время запроса
+     * @param inFlightAtStart значение, которое вернул {@link #tryAcquire}
+     * @param outcome     результат запроса
+     */
+    public void release(long rttNanos, int inFlightAtStart, Outcome outcome) {
+        inFlight.decrementAndGet();
+        switch (outcome) {
+            case SUCCESS -> onSample(rttNanos, inFlightAtStart);
+            case OVERLOAD -> onOverload();
+            case IGNORED -> { }
+        }
+    }
+
+    public int limit() {
+        return (int) currentLimit();
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    private double currentLimit() {
+        return Double.longBitsToDouble(limitBits.get());
+    }
+
+    private void onSample(long rttNanos, int inFlightAtStart) {
+        rttSum.add(rttNanos);
+        samples.increment();
+        if (inFlightAtStart > peakInFlight.get()) {
+            peakInFlight.accumulateAndGet(inFlightAtStart, Math::max);
+        }
+        if (samples.sum() >= SAMPLE_BATCH && updateLock.tryLock()) {
+            try {
+                recompute();
+            } finally {
+                updateLock.unlock();
+            }
+        }
+    }
+
+    private void recompute() {
+        long count = samples.sum();
+        if (count < SAMPLE_BATCH) {
+            return;
+        }
+        // Задержки, добавленные между чтениями, уйдут в следующую порцию
+        long sum = rttSum.sum();
+        samples.add(-count);
+        rttSum.add(-sum);
+        int peak = peakInFlight.getAndSet(0);
+
+        double shortRtt = (double) sum / count;
+        if (longRtt == 0) {
+            longRtt = shortRtt;
+            return;
+        }
+        longRtt += (shortRtt - longRtt) / (shortRtt > longRtt * tolerance ? CONGESTED_LONG_WINDOW : LONG_WINDOW);
+        // После того как очередь рассосалась, базовая задержка быстро опускается к текущей,
+        // иначе лимит долго рос бы по завышенной базе
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+
+        double gradient = Math.clamp(tolerance * longRtt / shortRtt, 0.5, 1.0);
+        while (true) {
+            long bits = limitBits.get();
+            double current = Double.longBitsToDouble(bits);
+            double target = current * gradient + Math.sqrt(current);
+            if (peak < current / 2) {
+                target = Math.min(target, current);
+            }
+            double next = Math.clamp(current * (1 - smoothing) + target * smoothing, minLimit, maxLimit);
+            if (limitBits.compareAndSet(bits, Double.doubleToRawLongBits(next))) {
+                return;
+            }
+        }
+    }
+
+    private void onOverload() {
+        while (true) {
+            long bits = limitBits.get();
+            double next = Math.max(minLimit, Double.longBitsToDouble(bits) * backoffRatio);
+            if (limitBits.compareAndSet(bits, Double.doubleToRawLongBits(next))) {
+                return;
+            }
+        }
+    }
+
+    public enum Outcome {
+        /** Ответ получен, задержка учитывается */
+        SUCCESS,
+        /** 503/504/502 или таймаут: upstream перегружен */
+        OVERLOAD,
+        /** Отмена клиентом или ошибка, не связанная с нагрузкой */
+        IGNORED
+    }
+}
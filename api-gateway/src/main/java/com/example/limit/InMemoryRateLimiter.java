@@ -0,0 +1,200 @@
+package com.example.limit;
+
+import com.example.config.RateLimitConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RateLimiter для фильтра RequestRateLimiter без Redis: token bucket'ы хранятся в памяти
+ * gateway (см. {@link TokenBucketTable}), отдельная таблица на маршрут. Квота считается
+ * на каждый экземпляр gateway: при N экземплярах за балансировщиком клиент получает до N квот.
+ * <p>
+ * Квота маршрута задаётся аргументами фильтра:
+ * <pre>
+ * - name: RequestRateLimiter
+ *   args:
+ *     rate-limiter: "#{@inMemoryRateLimiter}"
+ *     in-memory-rate-limiter.replenish-rate: 5
+ *     in-memory-rate-limiter.burst-capacity: 10
+ * </pre>
+ * Ответы с заголовками X-RateLimit-* создаются заранее для каждой квоты, поэтому проверка
+ * запроса не выделяет память.
+ * <p>
+ * Метрики: gateway.rate.limit.requests{route, outcome=allowed|rejected},
+ * gateway.rate.limit.buckets{route}.
+ */
+@Component
+public class InMemoryRateLimiter extends AbstractRateLimiter<InMemoryRateLimiter.Config> {
+
+    public static final String CONFIGURATION_PROPERTY_NAME = "in-memory-rate-limiter";
+    public static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+    public static final String REPLENISH_RATE_HEADER = "X-RateLimit-Replenish-Rate";
+    public static final String BURST_CAPACITY_HEADER = "X-RateLimit-Burst-Capacity";
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final int MAX_CACHED_RESPONSES = 1024;
+
+    private final RateLimitConfig properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, RouteBuckets> routes = new ConcurrentHashMap<>();
+    private final Map<String, Quota> quotas = new ConcurrentHashMap<>();
+    private final Config defaultConfig;
+
+    public InMemoryRateLimiter(RateLimitConfig properties, ConfigurationService configurationService,
+                               MeterRegistry meterRegistry) {
+        super(Config.class, CONFIGURATION_PROPERTY_NAME, configurationService);
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.defaultConfig = newConfig();
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        Config config = getConfig().getOrDefault(routeId, defaultConfig);
+        RouteBuckets route = routes.get(routeId);
+        if (route == null) {
+            route = routes.computeIfAbsent(routeId, this::newRouteBuckets);
+        }
+
+        // Аргументы маршрута могут смениться при обновлении маршрутов, тогда меняется и объект Config
+        Quota quota = quotas.get(routeId);
+        if (quota == null || quota.config() != config) {
+            quota = Quota.of(config);
+            quotas.put(routeId, quota);
+        }
+
+        long result = route.table().tryAcquire(id, quota.intervalNanos(), config.getBurstCapacity(),
+                config.getRequestedTokens(), System.nanoTime());
+        if (result >= 0) {
+            route.allowed().increment();
+            return quota.allowed(result);
+        }
+        route.rejected().increment();
+        long waitNanos = -1 - result;
+        return quota.rejected((waitNanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND);
+    }
+
+    /**
+     * Квота маршрута по умолчанию; аргументы фильтра переопределяют отдельные поля
+     */
+    @Override
+    public Config newConfig() {
+        Config config = new Config();
+        config.setReplenishRate(properties.getReplenishRate());
+        config.setBurstCapacity(properties.getBurstCapacity());
+        config.setRequestedTokens(properties.getRequestedTokens());
+        return config;
+    }
+
+    @Scheduled(fixedDelayString = "${gateway.rate-limit.idle-timeout:1m}")
+    public void evictIdleBuckets() {
+        long idleNanos = properties.getIdleTimeout().toNanos();
+        long now = System.nanoTime();
+        routes.values().forEach(route -> route.table().evictIdle(idleNanos, now));
+    }
+
+    private RouteBuckets newRouteBuckets(String routeId) {
+        TokenBucketTable table = new TokenBucketTable(properties.getShards(), properties.getMaxBuckets());
+        Gauge.builder("gateway.rate.limit.buckets", table, TokenBucketTable::size)
+                .description("Token buckets held in memory per route")
+                .tag("route", routeId)
+                .register(meterRegistry);
+        return new RouteBuckets(table, counter(routeId, "allowed"), counter(routeId, "rejected"));
+    }
+
+    private Counter counter(String routeId, String outcome) {
+        return Counter.builder("gateway.rate.limit.requests")
+                .description("Requests checked by the in-memory rate limiter")
+                .tag("route", routeId)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private record RouteBuckets(TokenBucketTable table, Counter allowed, Counter rejected) {}
+
+    /**
+     * Квота маршрута с заранее созданными ответами: разрешённые — по остатку токенов,
+     * отклонённые — по Retry-After в секундах. Значения вне кэша создаются при запросе.
+     */
+    private record Quota(Config config, long intervalNanos, List<Mono<Response>> allowedResponses,
+                         List<Mono<Response>> rejectedResponses) {
+
+        static Quota of(Config config) {
+            long intervalNanos = Math.max(1, NANOS_PER_SECOND / config.getReplenishRate());
+            List<Mono<Response>> allowed = new ArrayList<>();
+            for (long remaining = 0; remaining < Math.min(config.getBurstCapacity(), MAX_CACHED_RESPONSES); remaining++) {
+                allowed.add(response(config, true, remaining, 0));
+            }
+            long maxRetryAfter = (intervalNanos * config.getRequestedTokens() + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND;
+            List<Mono<Response>> rejected = new ArrayList<>();
+            for (long seconds = 0; seconds <= Math.min(maxRetryAfter, MAX_CACHED_RESPONSES); seconds++) {
+                rejected.add(response(config, false, 0, seconds));
+            }
+            return new Quota(config, intervalNanos, List.copyOf(allowed), List.copyOf(rejected));
+        }
+
+        Mono<Response> allowed(long remaining) {
+            return remaining < allowedResponses.size()
+                    ? allowedResponses.get((int) remaining)
+                    : response(config, true, remaining, 0);
+        }
+
+        Mono<Response> rejected(long retryAfterSeconds) {
+            return retryAfterSeconds < rejectedResponses.size()
+                    ? rejectedResponses.get((int) retryAfterSeconds)
+                    : response(config, false, 0, retryAfterSeconds);
+        }
+
+        private static Mono<Response> response(Config config, boolean allowed, long remaining, long retryAfterSeconds) {
+            Map<String, String> headers = new LinkedHashMap<>();
+            headers.put(REMAINING_HEADER, Long.toString(remaining));
+            headers.put(REPLENISH_RATE_HEADER, Integer.toString(config.getReplenishRate()));
+            headers.put(BURST_CAPACITY_HEADER, Integer.toString(config.getBurstCapacity()));
+            if (!allowed) {
+                headers.put(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+            }
+            return Mono.just(new Response(allowed, Collections.unmodifiableMap(headers)));
+        }
+    }
+
+    @Data
+    @Validated
+    public static class Config {
+
+        /**
+         * Токенов в секунду на клиента
+         */
+        @Min(1)
+        private int replenishRate;
+
+        /**
+         * Ёмкость bucket'а в токенах
+         */
+        @Min(1)
+        private int burstCapacity;
+
+        /**
+         * Стоимость одного запроса в токенах
+         */
+        @Min(1)
+        private int requestedTokens;
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.limit;
+
+/**
+ * Класс приоритета запроса. При приближении к лимиту первыми отклоняются запросы
+ * с меньшей долей лимита: BULK — когда занято больше половины, NORMAL — после 90%,
+ * CRITICAL может занять лимит целиком.
+ */
+public enum RequestPriority {
+    CRITICAL,
+    NORMAL,
+    BULK
+}
@@ -0,0 +1,40 @@
+package com.example.limit;
+
+import com.example.config.GatewayAuthConfig;
+import com.example.filter.JwtAuthenticationGlobalFilter;
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Ключ rate limit'а: пользователь из проверенного токена (X-Auth-Subject выставляет
+ * JwtAuthenticationGlobalFilter до фильтров маршрута), иначе API-ключ клиента из
+ * {@code gateway.auth.api-keys}. Произвольные значения заголовка ключами не становятся,
+ * иначе клиент получал бы новую квоту с каждым новым значением. Без пользователя и известного
+ * API-ключа ключа нет, и RequestRateLimiter поступает по {@code deny-empty-key}.
+ */
+@Component
+public class SubjectOrApiKeyResolver implements KeyResolver {
+
+    private final GatewayAuthConfig config;
+
+    public SubjectOrApiKeyResolver(GatewayAuthConfig config) {
+        this.config = config;
+    }
+
+    @Override
+    public Mono<String> resolve(ServerWebExchange exchange) {
+        HttpHeaders headers = exchange.getRequest().getHeaders();
+        String subject = headers.getFirst(JwtAuthenticationGlobalFilter.SUBJECT_HEADER);
+        if (subject != null) {
+            return Mono.just("user:" + subject);
+        }
+        String apiKey = headers.getFirst(config.getApiKeyHeader());
+        if (apiKey != null && !apiKey.isBlank() && config.getApiKeys().contains(apiKey)) {
+            return Mono.just("key:" + apiKey);
+        }
+        return Mono.empty();
+    }
+}
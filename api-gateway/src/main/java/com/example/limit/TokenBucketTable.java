@@ -0,0 +1,142 @@
+package com.example.limit;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Token bucket'ы одного маршрута, по одному на ключ клиента.
+ * <p>
+ * Bucket хранится как одно число — теоретическое время прибытия (TAT, алгоритм GCRA):
+ * момент, когда bucket снова станет полным. Запрос сдвигает TAT на стоимость своих токенов
+ * и проходит, если TAT уходит вперёд не больше чем на ёмкость bucket'а.
+ * <p>
+ * Ключи разложены по шардам, у каждого своя блокировка и LRU-ограничение размера; блокировка
+ * держится только на время поиска bucket'а и сдвига TAT. Блокировка, а не CAS по TAT: порядок LRU
+ * меняется при каждом обращении, и атомарно вместе с TAT его без неё не обновить; потоки event loop
+ * ждут друг друга, только когда их ключи попали в один шард. Когда шард заполнен, новый ключ
+ * вытесняет bucket, к которому дольше всех не обращались, и каждый клиент получает свой bucket.
+ * Вытесненный клиент при следующем запросе начинает с полного bucket'а, поэтому ключами
+ * должны быть только проверенные идентификаторы (см. {@link SubjectOrApiKeyResolver}), а таблица —
+ * вмещать всех активных клиентов. Bucket, который полон дольше {@code idleNanos}, ничем
+ * не отличается от нового и удаляется при очистке.
+ */
+public class TokenBucketTable {
+
+    private final Shard[] shards;
+    private final int mask;
+
+    public TokenBucketTable(int shardCount, int maxBuckets) {
+        if (shardCount < 1 || maxBuckets < shardCount) {
+            throw new IllegalArgumentException("Invalid table size: shards=" + shardCount + ", maxBuckets=" + maxBuckets);
+        }
+        int size = Integer.highestOneBit(shardCount - 1) << 1;
+        if (size == 0) {
+            size = 1;
+        }
+        this.shards = new Shard[size];
+        this.mask = size - 1;
+        int maxBucketsPerShard = Math.max(1, maxBuckets / size);
+        for (int i = 0; i < size; i++) {
+            shards[i] = new Shard(maxBucketsPerShard);
+        }
+    }
+
+    /**
+     * Списывает токены из bucket'а ключа
+     * @param key            ключ клиента
+     * @param intervalNanos  время пополнения одного токена
+     * @param burstCapacity  ёмкость bucket'а в токенах
+     * @param requestedTokens стоимость запроса в токенах
+     * @param now            текущее {@link System#nanoTime()}
+     * @return остаток токенов (>= 0), если запрос разрешён, иначе {@code -1 - ожидание в наносекундах}
+     */
+    public long tryAcquire(String key, long intervalNanos, int burstCapacity, int requestedTokens, long now) {
+        long cost = intervalNanos * requestedTokens;
+        long window = intervalNanos * burstCapacity;
+        Shard shard = shards[shardIndex(key.hashCode())];
+        shard.lock.lock();
+        try {
+            Bucket bucket = shard.buckets.get(key);
+            long tat = bucket != null ? bucket.tat : now;
+            long start = tat - now > 0 ? tat : now;
+            long next = start + cost;
+            long ahead = next - now;
+            if (ahead > window) {
+                return -1 - (ahead - window);
+            }
+            if (bucket != null) {
+                bucket.tat = next;
+            } else {
+                shard.buckets.put(key, new Bucket(next));
+            }
+            return (window - ahead) / intervalNanos;
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    /**
+     * Удаляет bucket'ы, полные дольше {@code idleNanos}
+     * @return число удалённых
+     */
+    public int evictIdle(long idleNanos, long now) {
+        int evicted = 0;
+        for (Shard shard : shards) {
+            shard.lock.lock();
+            try {
+                int before = shard.buckets.size();
+                shard.buckets.values().removeIf(bucket -> now - bucket.tat > idleNanos);
+                evicted += before - shard.buckets.size();
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+        return evicted;
+    }
+
+    public long size() {
+        long size = 0;
+        for (Shard shard : shards) {
+            shard.lock.lock();
+            try {
+                size += shard.buckets.size();
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Шард выбирается по перемешанным старшим битам: младшие биты хэша HashMap
+     * использует сама, и при совпадении ключи шарда занимали бы малую часть её корзин
+     */
+    private int shardIndex(int hash) {
+        return ((hash * 0x9E3779B9) >>> 16) & mask;
+    }
+
+    private static final class Shard {
+
+        final ReentrantLock lock = new ReentrantLock();
+        final Map<String, Bucket> buckets;
+
+        Shard(int maxBuckets) {
+            this.buckets = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+                    return size() > maxBuckets;
+                }
+            };
+        }
+    }
+
+    private static final class Bucket {
+
+        long tat;
+
+        Bucket(long tat) {
+            this.tat = tat;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.security;
+
+import com.example.config.GatewayAuthConfig;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import introspection.IntrospectRequest;
+import introspection.IntrospectResponse;
+import introspection.TokenIntrospectionServiceGrpc;
+import introspection.TokenType;
+import io.grpc.ManagedChannel;
+import io.grpc.Metadata;
+import io.grpc.stub.MetadataUtils;
+import io.grpc.stub.StreamObserver;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.grpc.client.GrpcChannelFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Клиент gRPC TokenIntrospectionService auth-service.
+ * <p>
+ * Канал HTTP/2 создаётся один раз и соединяется при старте; keepalive-пинги держат соединение
+ * открытым между запросами, поэтому вызов не платит за установку TCP-соединения.
+ * Результат кэшируется на {@code gateway.auth.introspection.cache-ttl}; одновременные проверки
+ * одного токена объединяются в один вызов. Каждый вызов несёт сервисный токен
+ * ({@code gateway.auth.introspection.service-token}), без него auth-service отвечает UNAUTHENTICATED.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "gateway.auth.introspection", name = "enabled", havingValue = "true")
+public class AuthIntrospectionClient {
+
+    private static final Metadata.Key<String> SERVICE_TOKEN_KEY =
+            Metadata.Key.of("x-service-token", Metadata.ASCII_STRING_MARSHALLER);
+
+    private final TokenIntrospectionServiceGrpc.TokenIntrospectionServiceStub stub;
+    private final AsyncCache<String, Boolean> results;
+    private final long deadlineMillis;
+    private final Timer activeTimer;
+    private final Timer inactiveTimer;
+    private final Timer errorTimer;
+    private final long failOpenGraceNanos;
+    private volatile long lastAnswerNanos;
+    private volatile boolean answered;
+
+    public AuthIntrospectionClient(GrpcChannelFactory channelFactory, GatewayAuthConfig config,
+                                   MeterRegistry meterRegistry) {
+        GatewayAuthConfig.Introspection settings = config.getIntrospection();
+        if (settings.getServiceToken() == null || settings.getServiceToken().isBlank()) {
+            throw new IllegalStateException("gateway.auth.introspection.service-token is required");
+        }
+        ManagedChannel channel = channelFactory.createChannel(settings.getChannel());
+        channel.getState(true);
+        Metadata headers = new Metadata();
+        headers.put(SERVICE_TOKEN_KEY, settings.getServiceToken());
+        this.stub = TokenIntrospectionServiceGrpc.newStub(channel)
+                .withInterceptors(MetadataUtils.newAttachHeadersInterceptor(headers));
+        this.deadlineMillis = settings.getDeadline().toMillis();
+        this.failOpenGraceNanos = settings.getFailOpenGrace().toNanos();
+        this.results = Caffeine.newBuilder()
+                .maximumSize(config.getTokenCacheMaxEntries())
+                .expireAfterWrite(settings.getCacheTtl())
+                .buildAsync();
+        this.activeTimer = timer(meterRegistry, "active");
+        this.inactiveTimer = timer(meterRegistry, "inactive");
+        this.errorTimer = timer(meterRegistry, "error");
+    }
+
+    /**
+     * @param token access-токен, уже проверенный локально
+     * @return false, если auth-service считает токен недействительным (отозван, истёк);
+     * ошибка, если auth-service не ответил до deadline
+     */
+    public Mono<Boolean> isActive(String token) {
+        return Mono.fromFuture(() -> results.get(token, (key, executor) -> introspect(key)), true);
+    }
+
+    /**
+     * Можно ли пропустить токен без ответа auth-service: только если auth-service отвечал
+     * не раньше чем {@code gateway.auth.introspection.fail-open-grace} назад
+     */
+    public boolean withinFailOpenGrace() {
+        return answered && System.nanoTime() - lastAnswerNanos < failOpenGraceNanos;
+    }
+
+    private CompletableFuture<Boolean> introspect(String token) {
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        long start = System.nanoTime();
+        IntrospectRequest request = IntrospectRequest.newBuilder()
+                .setToken(token)
+                .setTokenTypeHint(TokenType.ACCESS)
+                .build();
+        stub.withDeadlineAfter(deadlineMillis, TimeUnit.MILLISECONDS)
+                .introspect(request, new StreamObserver<>() {
+                    @Override
+                    public void onNext(IntrospectResponse response) {
+                        lastAnswerNanos = System.nanoTime();
+                        answered = true;
+                        (response.getActive() ? activeTimer : inactiveTimer)
+                                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                        if (!response.getActive()) {
+                            log.debug("Token rejected by auth-service: {}", response.getReason());
+                        }
+                        result.complete(response.getActive());
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        errorTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                        result.completeExceptionally(t);
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                    }
+                });
+        return result;
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("gateway.auth.introspection")
+                .description("gRPC token introspection calls to auth-service")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
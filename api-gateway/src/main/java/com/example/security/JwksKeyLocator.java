@@ -0,0 +1,97 @@
+package com.example.security;
+
+import com.example.config.GatewayAuthConfig;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.Jwk;
+import io.jsonwebtoken.security.JwkSet;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.PublicJwk;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.security.Key;
+import java.security.PublicKey;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Публичные ключи auth-service, загружаемые из JWKS и выбираемые по kid.
+ * Ключи обновляются в фоне, поэтому проверка токена не выполняет сетевых вызовов.
+ * Неизвестный kid отклоняется и запускает внеплановое обновление, не чаще
+ * {@code gateway.auth.jwks-min-refresh-interval}.
+ */
+@Slf4j
+@Component
+public class JwksKeyLocator extends LocatorAdapter<Key> {
+
+    private final GatewayAuthConfig config;
+    private final WebClient webClient;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private final AtomicLong lastRefreshNanos = new AtomicLong();
+    private volatile Map<String, PublicKey> keys = Map.of();
+
+    public JwksKeyLocator(GatewayAuthConfig config, WebClient.Builder webClientBuilder) {
+        this.config = config;
+        this.webClient = webClientBuilder.build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${gateway.auth.jwks-refresh-interval:5m}",
+            initialDelayString = "${gateway.auth.jwks-refresh-interval:5m}")
+    public void refresh() {
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        lastRefreshNanos.set(System.nanoTime());
+        webClient.get()
+                .uri(config.getJwksUri())
+                .retrieve()
+                .bodyToMono(String.class)
+                .map(json -> Jwks.setParser().build().parse(json))
+                .doFinally(signal -> refreshing.set(false))
+                .subscribe(this::apply, ex -> log.warn("Failed to load JWKS from {}: {}", config.getJwksUri(), ex.getMessage()));
+    }
+
+    @Override
+    protected Key locate(JwsHeader header) {
+        String kid = header.getKeyId();
+        PublicKey key = kid == null ? null : keys.get(kid);
+        if (key == null) {
+            refreshIfAllowed();
+            throw new UnsupportedJwtException("Unknown key id: " + kid);
+        }
+        return key;
+    }
+
+    private void refreshIfAllowed() {
+        long sinceLast = System.nanoTime() - lastRefreshNanos.get();
+        if (sinceLast >= config.getJwksMinRefreshInterval().toNanos()) {
+            refresh();
+        }
+    }
+
+    private void apply(JwkSet jwkSet) {
+        Map<String, PublicKey> loaded = new HashMap<>();
+        for (Jwk<?> jwk : jwkSet) {
+            if (jwk instanceof PublicJwk<?> publicJwk && jwk.getId() != null) {
+                loaded.put(jwk.getId(), publicJwk.toKey());
+            }
+        }
+        if (!loaded.keySet().equals(keys.keySet())) {
+            log.info("JWKS loaded, kids: {}", loaded.keySet());
+        }
+        keys = Map.copyOf(loaded);
+    }
+}
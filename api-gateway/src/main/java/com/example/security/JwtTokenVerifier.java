@@ -0,0 +1,63 @@
+package com.example.security;
+
+import com.example.config.GatewayAuthConfig;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Локальная проверка access токенов по ключам из JWKS с кэшированием результата
+ */
+@Component
+public class JwtTokenVerifier {
+
+    private final JwtParser jwtParser;
+    private final VerifiedTokenCache cache;
+
+    public JwtTokenVerifier(GatewayAuthConfig config, JwksKeyLocator keyLocator, VerifiedTokenCache cache) {
+        this.jwtParser = Jwts.parser()
+                .keyLocator(keyLocator)
+                .requireIssuer(config.getIssuer())
+                .build();
+        this.cache = cache;
+    }
+
+    /**
+     * @param token JWT токен
+     * @return проверенные данные токена
+     * @throws JwtException если подпись, issuer или срок действия неверны
+     */
+    public VerifiedToken verify(String token) {
+        VerifiedToken cached = cache.get(token);
+        if (cached != null) {
+            return cached;
+        }
+        Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+        VerifiedToken verified = new VerifiedToken(
+                claims.get("uid", Long.class),
+                claims.getSubject(),
+                roles(claims),
+                claims.getExpiration().toInstant()
+        );
+        cache.put(token, verified);
+        return verified;
+    }
+
+    private static List<String> roles(Claims claims) {
+        Object roles = claims.get("roles");
+        if (!(roles instanceof Collection<?> values)) {
+            return List.of();
+        }
+        List<String> result = new ArrayList<>(values.size());
+        for (Object value : values) {
+            result.add(String.valueOf(value));
+        }
+        return result;
+    }
+}
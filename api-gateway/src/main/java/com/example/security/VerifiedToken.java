@@ -0,0 +1,27 @@
+package com.example.security;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Результат проверки access токена на gateway
+ *
+ * @param userId    идентификатор пользователя (claim uid), может быть null
+ * @param subject   email пользователя
+ * @param roles     роли пользователя
+ * @param expiresAt время истечения токена
+ */
+public record VerifiedToken(
+        Long userId,
+        String subject,
+        List<String> roles,
+        Instant expiresAt
+) {
+    public VerifiedToken {
+        roles = roles == null ? List.of() : List.copyOf(roles);
+    }
+
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.security;
+
+import com.example.config.GatewayAuthConfig;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ограниченный кэш успешно проверенных токенов до момента их истечения.
+ * Ключ - SHA-256 всего токена: запись не может быть получена токеном
+ * с той же подписью, но изменёнными claims.
+ * <p>
+ * При заполнении сначала удаляются истёкшие записи (не чаще раза в секунду);
+ * если места всё равно нет, новый токен не кэшируется.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private static final long SWEEP_INTERVAL_NANOS = 1_000_000_000L;
+
+    private final ConcurrentHashMap<String, VerifiedToken> entries = new ConcurrentHashMap<>();
+    private final AtomicLong lastSweepNanos = new AtomicLong(System.nanoTime() - SWEEP_INTERVAL_NANOS);
+    private final int maxEntries;
+    private final Clock clock;
+
+    @Autowired
+    public VerifiedTokenCache(GatewayAuthConfig config) {
+        this(config.getTokenCacheMaxEntries(), Clock.systemUTC());
+    }
+
+    VerifiedTokenCache(int maxEntries, Clock clock) {
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+    }
+
+    public VerifiedToken get(String token) {
+        String key = hash(token);
+        VerifiedToken verified = entries.get(key);
+        if (verified != null && verified.isExpired(clock.instant())) {
+            entries.remove(key, verified);
+            return null;
+        }
+        return verified;
+    }
+
+    public void put(String token, VerifiedToken verified) {
+        if (entries.size() >= maxEntries && !sweepExpired()) {
+            return;
+        }
+        entries.put(hash(token), verified);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private boolean sweepExpired() {
+        long now = System.nanoTime();
+        long last = lastSweepNanos.get();
+        if (now - last >= SWEEP_INTERVAL_NANOS && lastSweepNanos.compareAndSet(last, now)) {
+            Instant instant = clock.instant();
+            entries.values().removeIf(entry -> entry.isExpired(instant));
+        }
+        return entries.size() < maxEntries;
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+}
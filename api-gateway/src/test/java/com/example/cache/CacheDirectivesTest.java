@@ -0,0 +1,52 @@
+package com.example.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CacheDirectivesTest {
+
+    @Test
+    void withoutCacheControlNothingIsSet() {
+        CacheDirectives directives = CacheDirectives.of(new HttpHeaders());
+
+        assertFalse(directives.noStore());
+        assertFalse(directives.noCache());
+        assertFalse(directives.isPrivate());
+        assertNull(directives.maxAge());
+    }
+
+    @Test
+    void flagsAreParsedCaseInsensitively() {
+        CacheDirectives directives = CacheDirectives.of(cacheControl("No-Store, PRIVATE=\"Set-Cookie\", no-cache=\"Age\""));
+
+        assertTrue(directives.noStore());
+        assertTrue(directives.noCache());
+        assertTrue(directives.isPrivate());
+    }
+
+    @Test
+    void sharedMaxAgeWinsOverMaxAge() {
+        assertEquals(Duration.ofSeconds(10), CacheDirectives.of(cacheControl("public, max-age=10")).maxAge());
+        assertEquals(Duration.ofSeconds(5), CacheDirectives.of(cacheControl("s-maxage=5, max-age=60")).maxAge());
+        assertEquals(Duration.ofSeconds(5), CacheDirectives.of(cacheControl("max-age=60, s-maxage=\"5\"")).maxAge());
+    }
+
+    @Test
+    void invalidOrNegativeMaxAgeMeansStale() {
+        assertEquals(Duration.ZERO, CacheDirectives.of(cacheControl("max-age=soon")).maxAge());
+        assertEquals(Duration.ZERO, CacheDirectives.of(cacheControl("max-age=-1")).maxAge());
+    }
+
+    private static HttpHeaders cacheControl(String value) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setCacheControl(value);
+        return headers;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CachedResponseTest {
+
+    @Test
+    void freshUntilFreshNanosPass() {
+        CachedResponse response = response(1_000, 500);
+
+        assertTrue(response.isFresh(1_000));
+        assertTrue(response.isFresh(1_499));
+        assertFalse(response.isFresh(1_500));
+    }
+
+    @Test
+    void zeroFreshnessIsNeverFresh() {
+        assertFalse(response(1_000, 0).isFresh(1_000));
+    }
+
+    @Test
+    void revalidationRestartsFreshness() {
+        CachedResponse revalidated = response(1_000, 500).revalidated(5_000, 500);
+
+        assertTrue(revalidated.isFresh(5_499));
+        assertFalse(revalidated.isFresh(5_500));
+    }
+
+    @Test
+    void freshnessSurvivesNanoTimeOverflow() {
+        assertTrue(response(Long.MAX_VALUE - 100, 500).isFresh(Long.MIN_VALUE + 100));
+    }
+
+    private static CachedResponse response(long storedAtNanos, long freshNanos) {
+        return new CachedResponse(HttpStatus.OK, HttpHeaders.EMPTY, new byte[0], "\"v1\"", storedAtNanos, freshNanos);
+    }
+}
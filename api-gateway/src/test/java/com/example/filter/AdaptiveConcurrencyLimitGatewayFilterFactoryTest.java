@@ -0,0 +1,79 @@
+package com.example.filter;
+
+import com.example.config.ConcurrencyLimitConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Sinks;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AdaptiveConcurrencyLimitGatewayFilterFactoryTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ConcurrencyLimitConfig limitConfig = new ConcurrencyLimitConfig();
+    private final AdaptiveConcurrencyLimitGatewayFilterFactory factory =
+            new AdaptiveConcurrencyLimitGatewayFilterFactory(limitConfig, meterRegistry);
+
+    @Test
+    void upstream503ReducesLimit() {
+        GatewayFilter filter = factory.apply(config("orders", 10));
+
+        filter.filter(exchange("/api/orders/1"), respondWith(HttpStatus.SERVICE_UNAVAILABLE)).block();
+        assertEquals(9, limit("orders"));
+
+        filter.filter(exchange("/api/orders/1"), respondWith(HttpStatus.OK)).block();
+        assertEquals(0, meterRegistry.get("gateway.concurrency.in.flight").tag("route", "orders").gauge().value());
+    }
+
+    @Test
+    void bulkRequestOverItsShareIsRejected() {
+        limitConfig.setBulk(List.of("/api/admin/**"));
+        GatewayFilter filter = factory.apply(config("admin", 4));
+        Sinks.Empty<Void> upstream = Sinks.empty();
+
+        filter.filter(exchange("/api/admin/report"), exchange -> upstream.asMono()).subscribe();
+        filter.filter(exchange("/api/admin/report"), exchange -> upstream.asMono()).subscribe();
+        MockServerWebExchange shed = exchange("/api/admin/report");
+        filter.filter(shed, respondWith(HttpStatus.OK)).block();
+        MockServerWebExchange normal = exchange("/api/orders/1");
+        filter.filter(normal, respondWith(HttpStatus.OK)).block();
+        upstream.tryEmitEmpty();
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, shed.getResponse().getStatusCode());
+        assertEquals("1", shed.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(HttpStatus.OK, normal.getResponse().getStatusCode());
+        assertEquals(1, meterRegistry.get("gateway.concurrency.requests")
+                .tags("route", "admin", "priority", "bulk", "outcome", "rejected").counter().count());
+    }
+
+    private static AdaptiveConcurrencyLimitGatewayFilterFactory.Config config(String routeId, int initialLimit) {
+        AdaptiveConcurrencyLimitGatewayFilterFactory.Config config = new AdaptiveConcurrencyLimitGatewayFilterFactory.Config();
+        config.setRouteId(routeId);
+        config.setInitialLimit(initialLimit);
+        config.setMinLimit(1);
+        return config;
+    }
+
+    private static MockServerWebExchange exchange(String path) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(path));
+    }
+
+    private static GatewayFilterChain respondWith(HttpStatus status) {
+        return exchange -> {
+            exchange.getResponse().setStatusCode(status);
+            return exchange.getResponse().setComplete();
+        };
+    }
+
+    private double limit(String routeId) {
+        return meterRegistry.get("gateway.concurrency.limit").tag("route", routeId).gauge().value();
+    }
+}
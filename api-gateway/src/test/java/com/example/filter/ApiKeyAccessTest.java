@@ -0,0 +1,91 @@
+package com.example.filter;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Запрос с API-ключом без токена через всю цепочку gateway: JWT-фильтр, RequestRateLimiter
+ * маршрута user-service (burst 10) и проксирование в заглушку upstream, которая возвращает
+ * полученные заголовки X-Auth-Subject и X-Api-Key.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "gateway.auth.api-keys=partner-key,other-key")
+@AutoConfigureWebTestClient
+class ApiKeyAccessTest {
+
+    private static final DisposableServer UPSTREAM = HttpServer.create()
+            .port(0)
+            .handle((request, response) -> response.sendString(Mono.just(
+                    "subject=" + request.requestHeaders().get(JwtAuthenticationGlobalFilter.SUBJECT_HEADER)
+                            + ";key=" + request.requestHeaders().get("X-Api-Key"))))
+            .bindNow();
+
+    @Autowired
+    private WebTestClient client;
+
+    @DynamicPropertySource
+    static void upstream(DynamicPropertyRegistry registry) {
+        registry.add("USER_SERVICE_URI", () -> "http://localhost:" + UPSTREAM.port());
+    }
+
+    @AfterAll
+    static void stopUpstream() {
+        UPSTREAM.disposeNow();
+    }
+
+    @Test
+    void issuedKeyPassesWithoutTokenAndSpoofedSubjectIsStripped() {
+        client.get().uri("/api/users/1")
+                .header("X-Api-Key", "partner-key")
+                .header(JwtAuthenticationGlobalFilter.SUBJECT_HEADER, "admin")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals("X-RateLimit-Burst-Capacity", "10")
+                .expectBody(String.class).isEqualTo("subject=null;key=partner-key");
+    }
+
+    @Test
+    void unknownKeyOrNoCredentialsIsRejected() {
+        client.get().uri("/api/users/1")
+                .header("X-Api-Key", "guessed-key")
+                .exchange()
+                .expectStatus().isUnauthorized();
+        client.get().uri("/api/users/1")
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    @Test
+    void quotaIsCountedPerKey() {
+        // Bucket пополняется на 5 токенов в секунду и за время серии успевает получить несколько
+        int allowed = 0;
+        while (get("other-key") == HttpStatus.OK) {
+            allowed++;
+            assertTrue(allowed < 30, "key was never limited");
+        }
+        assertTrue(allowed >= 10, "burst of 10 was not allowed: " + allowed);
+        assertEquals(HttpStatus.OK, get("partner-key"));
+    }
+
+    private HttpStatus get(String apiKey) {
+        return HttpStatus.valueOf(client.get().uri("/api/users/1")
+                .header("X-Api-Key", apiKey)
+                .exchange()
+                .returnResult(String.class)
+                .getStatus()
+                .value());
+    }
+}
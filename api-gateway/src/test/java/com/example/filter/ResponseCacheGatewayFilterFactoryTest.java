@@ -0,0 +1,149 @@
+package com.example.filter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ResponseCacheGatewayFilterFactoryTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final GatewayFilter filter = new ResponseCacheGatewayFilterFactory(meterRegistry).apply(config());
+    // Запросы, дошедшие до upstream
+    private final List<ServerWebExchange> upstreamCalls = new ArrayList<>();
+
+    @Test
+    void secondRequestIsServedFromCache() {
+        GatewayFilterChain upstream = respondWith("order 1", "max-age=60");
+
+        MockServerWebExchange miss = exchange("42");
+        filter.filter(miss, upstream).block();
+        MockServerWebExchange hit = exchange("42");
+        filter.filter(hit, upstream).block();
+
+        assertEquals(1, upstreamCalls.size());
+        assertEquals("MISS", cacheStatus(miss));
+        assertEquals("HIT", cacheStatus(hit));
+        assertEquals(HttpStatus.OK, hit.getResponse().getStatusCode());
+        assertEquals("order 1", hit.getResponse().getBodyAsString().block());
+        assertEquals(1, count("hit"));
+    }
+
+    @Test
+    void concurrentRequestsShareOneUpstreamCall() {
+        Sinks.Empty<Void> upstreamDone = Sinks.empty();
+        GatewayFilterChain slowUpstream = exchange -> {
+            upstreamCalls.add(exchange);
+            return upstreamDone.asMono().then(Mono.defer(() -> write(exchange, HttpStatus.OK, "order 1", "max-age=60")));
+        };
+
+        MockServerWebExchange leader = exchange("42");
+        MockServerWebExchange follower = exchange("42");
+        Mono<Void> first = filter.filter(leader, slowUpstream).cache();
+        Mono<Void> second = filter.filter(follower, slowUpstream).cache();
+        first.subscribe();
+        second.subscribe();
+        upstreamDone.tryEmitEmpty();
+        first.block();
+        second.block();
+
+        assertEquals(1, upstreamCalls.size());
+        assertEquals("MISS", cacheStatus(leader));
+        assertEquals("COALESCED", cacheStatus(follower));
+        assertEquals("order 1", follower.getResponse().getBodyAsString().block());
+        assertEquals(1, count("coalesced"));
+    }
+
+    @Test
+    void staleEntryIsRevalidatedWithEtag() {
+        GatewayFilterChain upstream = exchange -> {
+            upstreamCalls.add(exchange);
+            if (exchange.getRequest().getHeaders().getIfNoneMatch().contains("\"v1\"")) {
+                exchange.getResponse().setStatusCode(HttpStatus.NOT_MODIFIED);
+                return exchange.getResponse().writeWith(Flux.empty());
+            }
+            exchange.getResponse().getHeaders().setETag("\"v1\"");
+            return write(exchange, HttpStatus.OK, "order 1", "no-cache");
+        };
+
+        filter.filter(exchange("42"), upstream).block();
+        MockServerWebExchange revalidated = exchange("42");
+        filter.filter(revalidated, upstream).block();
+
+        assertEquals(2, upstreamCalls.size());
+        assertNull(upstreamCalls.get(0).getRequest().getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH));
+        assertEquals("\"v1\"", upstreamCalls.get(1).getRequest().getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH));
+        assertEquals("REVALIDATED", cacheStatus(revalidated));
+        assertEquals(HttpStatus.OK, revalidated.getResponse().getStatusCode());
+        assertEquals("order 1", revalidated.getResponse().getBodyAsString().block());
+        assertEquals(1, count("revalidated"));
+    }
+
+    @Test
+    void responsesAreNotSharedBetweenSubjects() {
+        GatewayFilterChain upstream = exchange -> {
+            upstreamCalls.add(exchange);
+            String subject = exchange.getRequest().getHeaders().getFirst(JwtAuthenticationGlobalFilter.SUBJECT_HEADER);
+            return write(exchange, HttpStatus.OK, "orders of " + subject, "max-age=60");
+        };
+
+        MockServerWebExchange alice = exchange("alice");
+        filter.filter(alice, upstream).block();
+        MockServerWebExchange bob = exchange("bob");
+        filter.filter(bob, upstream).block();
+
+        assertEquals(2, upstreamCalls.size());
+        assertEquals("MISS", cacheStatus(bob));
+        assertEquals("orders of alice", alice.getResponse().getBodyAsString().block());
+        assertEquals("orders of bob", bob.getResponse().getBodyAsString().block());
+    }
+
+    private GatewayFilterChain respondWith(String body, String cacheControl) {
+        return exchange -> {
+            upstreamCalls.add(exchange);
+            return write(exchange, HttpStatus.OK, body, cacheControl);
+        };
+    }
+
+    private static Mono<Void> write(ServerWebExchange exchange, HttpStatus status, String body, String cacheControl) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(status);
+        response.getHeaders().setCacheControl(cacheControl);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    private static MockServerWebExchange exchange(String subject) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/api/orders/1")
+                .header(JwtAuthenticationGlobalFilter.SUBJECT_HEADER, subject));
+    }
+
+    private static String cacheStatus(MockServerWebExchange exchange) {
+        return exchange.getResponse().getHeaders().getFirst(ResponseCacheGatewayFilterFactory.CACHE_STATUS_HEADER);
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("gateway.response.cache").tags("route", "orders", "result", result).counter().count();
+    }
+
+    private static ResponseCacheGatewayFilterFactory.Config config() {
+        ResponseCacheGatewayFilterFactory.Config config = new ResponseCacheGatewayFilterFactory.Config();
+        config.setRouteId("orders");
+        return config;
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.limit;
+
+import com.example.config.ConcurrencyLimitConfig;
+import com.example.limit.AdaptiveConcurrencyLimiter.Outcome;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private final ConcurrencyLimitConfig config = new ConcurrencyLimitConfig();
+
+    @Test
+    void lowerPrioritiesAreShedFirst() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 2, 100, 1.5, 0.2, 0.9);
+
+        assertEquals(5, acquireAll(limiter, RequestPriority.BULK));
+        assertEquals(4, acquireAll(limiter, RequestPriority.NORMAL));
+        assertEquals(1, acquireAll(limiter, RequestPriority.CRITICAL));
+        assertEquals(10, limiter.inFlight());
+    }
+
+    @Test
+    void releasedSlotIsAvailableAgain() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 2, 100, 1.5, 0.2, 0.9);
+        acquireAll(limiter, RequestPriority.BULK);
+
+        limiter.release(1_000_000, 5, Outcome.IGNORED);
+
+        assertEquals(1, acquireAll(limiter, RequestPriority.BULK));
+        assertEquals(10, limiter.limit());
+    }
+
+    @Test
+    void overloadBacksOffDownToMinLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 8, 100, 1.5, 0.2, 0.9);
+
+        limiter.tryAcquire(1.0);
+        limiter.release(1_000_000, 1, Outcome.OVERLOAD);
+        assertEquals(9, limiter.limit());
+
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire(1.0);
+            limiter.release(1_000_000, 1, Outcome.OVERLOAD);
+        }
+        assertEquals(8, limiter.limit());
+        assertEquals(0, limiter.inFlight());
+    }
+
+    @Test
+    void limitFollowsLatencyOncePerBatch() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 2, 100, 1.5, 0.2, 0.9);
+
+        for (int i = 0; i < AdaptiveConcurrencyLimiter.SAMPLE_BATCH * 20; i++) {
+            complete(limiter, 1_000_000);
+        }
+        int grown = limiter.limit();
+        assertTrue(grown > 10, "limit " + grown);
+
+        for (int i = 0; i < AdaptiveConcurrencyLimiter.SAMPLE_BATCH - 1; i++) {
+            complete(limiter, 20_000_000);
+        }
+        assertEquals(grown, limiter.limit());
+        for (int i = 0; i < AdaptiveConcurrencyLimiter.SAMPLE_BATCH * 20; i++) {
+            complete(limiter, 20_000_000);
+        }
+        assertTrue(limiter.limit() < grown, "limit " + limiter.limit());
+    }
+
+    @Test
+    void concurrentReleasesKeepAccounting() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(50, 2, 100, 1.5, 0.2, 0.9);
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    int atStart = limiter.tryAcquire(1.0);
+                    if (atStart > 0) {
+                        limiter.release(1_000_000, atStart, i % 100 == 0 ? Outcome.OVERLOAD : Outcome.SUCCESS);
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(0, limiter.inFlight());
+        assertTrue(limiter.limit() >= 2 && limiter.limit() <= 100, "limit " + limiter.limit());
+    }
+
+    @Test
+    void firstMatchingRuleSetsPriority() {
+        config.setCritical(List.of("POST /api/auth/refresh"));
+        config.setBulk(List.of("/api/admin/**"));
+
+        assertEquals(RequestPriority.CRITICAL, config.priorityOf(MockServerHttpRequest.post("/api/auth/refresh").build()));
+        assertEquals(RequestPriority.NORMAL, config.priorityOf(MockServerHttpRequest.get("/api/auth/refresh").build()));
+        assertEquals(RequestPriority.BULK, config.priorityOf(MockServerHttpRequest.delete("/api/admin/users/1").build()));
+    }
+
+    /**
+     * Запрос при полной загрузке: занято всё, что разрешает лимит
+     */
+    private static void complete(AdaptiveConcurrencyLimiter limiter, long rttNanos) {
+        limiter.release(rttNanos, limiter.limit(), Outcome.SUCCESS);
+    }
+
+    private int acquireAll(AdaptiveConcurrencyLimiter limiter, RequestPriority priority) {
+        int acquired = 0;
+        while (limiter.tryAcquire(config.shareOf(priority)) > 0) {
+            acquired++;
+        }
+        return acquired;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.limit;
+
+import com.example.config.GatewayAuthConfig;
+import com.example.filter.JwtAuthenticationGlobalFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class SubjectOrApiKeyResolverTest {
+
+    private final GatewayAuthConfig config = new GatewayAuthConfig();
+    private final SubjectOrApiKeyResolver resolver = new SubjectOrApiKeyResolver(config);
+
+    @Test
+    void onlyIssuedApiKeysBecomeLimiterKeys() {
+        config.setApiKeys(Set.of("issued-key"));
+
+        assertEquals("key:issued-key", resolve(MockServerHttpRequest.get("/api/orders").header("X-Api-Key", "issued-key")));
+        assertNull(resolve(MockServerHttpRequest.get("/api/orders").header("X-Api-Key", "random-key")));
+        assertNull(resolve(MockServerHttpRequest.get("/api/orders")));
+    }
+
+    @Test
+    void subjectWinsOverApiKey() {
+        assertEquals("user:42", resolve(MockServerHttpRequest.get("/api/orders")
+                .header(JwtAuthenticationGlobalFilter.SUBJECT_HEADER, "42")
+                .header("X-Api-Key", "random-key")));
+    }
+
+    private String resolve(MockServerHttpRequest.BaseBuilder<?> request) {
+        return resolver.resolve(MockServerWebExchange.from(request)).block();
+    }
+}
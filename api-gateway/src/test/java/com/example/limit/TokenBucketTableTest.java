@@ -0,0 +1,61 @@
+package com.example.limit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TokenBucketTableTest {
+
+    private static final long INTERVAL = 1_000;
+    private static final int BURST = 3;
+
+    @Test
+    void burstIsSpentThenRejectedWithWait() {
+        TokenBucketTable table = new TokenBucketTable(1, 10);
+
+        assertEquals(2, acquire(table, "a", 0));
+        assertEquals(1, acquire(table, "a", 0));
+        assertEquals(0, acquire(table, "a", 0));
+        assertEquals(-1 - INTERVAL, acquire(table, "a", 0));
+        assertEquals(2, acquire(table, "b", 0));
+    }
+
+    @Test
+    void tokensRefillOverTime() {
+        TokenBucketTable table = new TokenBucketTable(1, 10);
+        for (int i = 0; i < BURST; i++) {
+            acquire(table, "a", 0);
+        }
+
+        assertEquals(-1 - INTERVAL / 2, acquire(table, "a", INTERVAL / 2));
+        assertEquals(0, acquire(table, "a", INTERVAL));
+        assertEquals(2, acquire(table, "a", 10 * INTERVAL));
+    }
+
+    @Test
+    void fullShardEvictsLeastRecentlyUsedBucket() {
+        TokenBucketTable table = new TokenBucketTable(1, 2);
+        acquire(table, "a", 0);
+        acquire(table, "b", 0);
+        acquire(table, "a", 0);
+
+        assertEquals(2, acquire(table, "c", 0));
+        assertEquals(2, table.size());
+        assertEquals(0, acquire(table, "a", 0));
+        assertEquals(2, acquire(table, "b", 0));
+    }
+
+    @Test
+    void idleBucketsAreRemoved() {
+        TokenBucketTable table = new TokenBucketTable(1, 10);
+        acquire(table, "a", 0);
+        acquire(table, "b", 5 * INTERVAL);
+
+        assertEquals(1, table.evictIdle(2 * INTERVAL, 5 * INTERVAL));
+        assertEquals(1, table.size());
+    }
+
+    private static long acquire(TokenBucketTable table, String key, long now) {
+        return table.tryAcquire(key, INTERVAL, BURST, 1, now);
+    }
+}
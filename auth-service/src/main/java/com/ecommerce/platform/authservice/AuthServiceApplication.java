@@ -2,7 +2,9 @@ package com.ecommerce.platform.authservice;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
+@EnableScheduling
 @SpringBootApplication
 public class AuthServiceApplication {
 	public static void main(String[] args) {
@@ -0,0 +1,103 @@
+package com.ecommerce.platform.authservice.config;
+
+import com.ecommerce.platform.authservice.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Маршрутизация чтения на реплики.
+ * <p>
+ * Транзакции {@code readOnly = true} получают соединение из пулов реплик, остальные — из основного пула
+ * ({@code spring.datasource}). Физическое соединение берётся лениво, при первом запросе, поэтому
+ * к этому моменту флаг read-only транзакции уже выставлен.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "datasource-routing")
+@ConditionalOnProperty(prefix = "datasource-routing", name = "enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    private boolean enabled;
+
+    /**
+     * Максимально допустимое отставание реплики; при большем чтение идёт на основную БД
+     */
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    /**
+     * Сколько WAL receiver реплики может не получать сообщений от основной БД. Основная БД шлёт
+     * keepalive не реже wal_sender_timeout / 2 (30s по умолчанию), поэтому значение должно быть больше
+     */
+    private Duration receiverTimeout = Duration.ofSeconds(60);
+
+    /**
+     * Пулы реплик
+     */
+    private List<Replica> replicas = new ArrayList<>();
+
+    @Data
+    public static class Replica {
+        private String name;
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+        /**
+         * Ожидание соединения из пула; короткое, чтобы недоступная реплика быстро уступала основной БД
+         */
+        private Duration connectionTimeout = Duration.ofSeconds(2);
+    }
+
+    @Bean
+    @ConfigurationProperties(prefix = "spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             DataSourceProperties properties,
+                                                             MeterRegistry meterRegistry) {
+        List<HikariDataSource> pools = new ArrayList<>(replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get(i);
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName(replica.getName() != null ? replica.getName() : "replica-" + (i + 1));
+            pool.setDriverClassName(properties.determineDriverClassName());
+            pool.setJdbcUrl(replica.getUrl());
+            pool.setUsername(replica.getUsername() != null ? replica.getUsername() : properties.determineUsername());
+            pool.setPassword(replica.getPassword() != null ? replica.getPassword() : properties.determinePassword());
+            pool.setMaximumPoolSize(replica.getMaximumPoolSize());
+            pool.setConnectionTimeout(replica.getConnectionTimeout().toMillis());
+            pool.setReadOnly(true);
+            // Пул не должен мешать старту, если реплика недоступна: она будет помечена и пропущена
+            pool.setInitializationFailTimeout(-1);
+            pool.setMetricRegistry(meterRegistry);
+            pools.add(pool);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, pools, maxLag, receiverTimeout, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaRoutingDataSource replicaRoutingDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaRoutingDataSource);
+        return dataSource;
+    }
+}
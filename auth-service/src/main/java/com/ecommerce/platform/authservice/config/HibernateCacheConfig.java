@@ -0,0 +1,80 @@
+package com.ecommerce.platform.authservice.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import lombok.Data;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+
+/**
+ * Регионы второго уровня кэша Hibernate (JCache поверх Caffeine).
+ * <p>
+ * Регионы создаются заранее с ограничением размера и TTL из {@code hibernate-cache.regions},
+ * а CacheManager передаётся Hibernate, чтобы регионы не создавались им без ограничений.
+ * Регион меток обновления таблиц для кэша запросов не ограничивается и не истекает:
+ * по нему Hibernate определяет устаревшие результаты запросов.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "hibernate-cache")
+public class HibernateCacheConfig {
+
+    public static final String ROLE_REGION = "auth.role";
+    public static final String USER_ROLES_REGION = "auth.user-roles";
+    public static final String ROLE_QUERY_REGION = "auth.role-queries";
+
+    private static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+    private static final String DEFAULT_QUERY_RESULTS_REGION = "default-query-results-region";
+
+    /**
+     * Размер и TTL по имени региона
+     */
+    private Map<String, Region> regions = new LinkedHashMap<>();
+
+    @Data
+    public static class Region {
+        private long maximumSize = 1_000;
+        private Duration ttl = Duration.ofHours(1);
+    }
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        CacheManager cacheManager = Caching
+                .getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager();
+        for (String name : new String[]{ROLE_REGION, USER_ROLES_REGION, ROLE_QUERY_REGION, DEFAULT_QUERY_RESULTS_REGION}) {
+            if (cacheManager.getCache(name) == null) {
+                cacheManager.createCache(name, bounded(regions.getOrDefault(name, new Region())));
+            }
+        }
+        if (cacheManager.getCache(UPDATE_TIMESTAMPS_REGION) == null) {
+            CaffeineConfiguration<Object, Object> timestamps = new CaffeineConfiguration<>();
+            timestamps.setStatisticsEnabled(true);
+            cacheManager.createCache(UPDATE_TIMESTAMPS_REGION, timestamps);
+        }
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    private static CaffeineConfiguration<Object, Object> bounded(Region region) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(region.getMaximumSize()));
+        configuration.setExpireAfterWrite(OptionalLong.of(region.getTtl().toNanos()));
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+}
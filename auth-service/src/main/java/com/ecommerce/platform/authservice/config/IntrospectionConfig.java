@@ -0,0 +1,46 @@
+package com.ecommerce.platform.authservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Доступ сервисов к проверке токенов (/internal/introspect и gRPC TokenIntrospectionService).
+ * Вызывающий передаёт сервисный токен в заголовке {@link #SERVICE_TOKEN_HEADER}
+ * (в gRPC — в метаданных с тем же именем). Без настроенных токенов оба входа отклоняют все запросы.
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "introspection")
+public class IntrospectionConfig {
+
+    public static final String SERVICE_TOKEN_HEADER = "X-Service-Token";
+
+    /**
+     * Принимаемые сервисные токены; несколько значений — на время ротации
+     */
+    private List<String> serviceTokens = new ArrayList<>();
+
+    /**
+     * Сравнение за постоянное время, чтобы токен нельзя было подобрать по времени ответа
+     */
+    public boolean accepts(String presented) {
+        if (presented == null || presented.isBlank()) {
+            return false;
+        }
+        byte[] candidate = presented.getBytes(StandardCharsets.UTF_8);
+        boolean accepted = false;
+        for (String token : serviceTokens) {
+            if (token != null && !token.isBlank()
+                    && MessageDigest.isEqual(candidate, token.getBytes(StandardCharsets.UTF_8))) {
+                accepted = true;
+            }
+        }
+        return accepted;
+    }
+}
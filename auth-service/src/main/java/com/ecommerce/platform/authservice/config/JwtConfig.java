@@ -1,9 +1,9 @@
 package com.ecommerce.platform.authservice.config;
 
 
+import com.ecommerce.platform.authservice.security.JwtKeyRing;
 import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.security.Keys;
 import lombok.Data;
 import lombok.Getter;
 import lombok.Setter;
@@ -11,46 +11,97 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import javax.crypto.SecretKey;
-import java.util.Base64;
+import java.time.Duration;
+import java.time.Instant;
 
 @Data
 @Configuration
 @ConfigurationProperties(prefix = "jwt")
 public class JwtConfig {
 
-    private String secret ;
     private long accessExpiration;
     private long refreshExpiration;
     private String issuer;
+    /**
+     * Режим аутентификации запросов в JwtAuthenticationFilter:
+     * STATELESS - Authentication строится только из проверенных claims токена,
+     * DATABASE - пользователь загружается через UserDetailsService на каждый запрос
+     */
+    private AuthenticationMode authenticationMode = AuthenticationMode.STATELESS;
+
+    public enum AuthenticationMode {
+        STATELESS,
+        DATABASE
+    }
 
     /**
-     * Преобразует секретную строку в криптографический ключ
-     * @return SecretKey для подписи/верификации
+     * Настройки асимметричной подписи токенов
      */
+    private Signing signing = new Signing();
+
+    @Data
+    public static class Signing {
+        /**
+         * Алгоритм подписи: RS256 или EdDSA (Ed25519).
+         * Токен подписывается один раз при выпуске, а проверяется на каждом запросе в gateway и сервисах.
+         * В JDK 21 проверка RS256 примерно в 35 раз быстрее Ed25519 (JwtServiceBenchmark.isTokenValid:
+         * ~8000 против ~220 операций в секунду на ядро), подпись сопоставима. EdDSA даёт короткие
+         * ключи и подписи, но на горячем пути проверки обходится дороже
+         */
+        private String algorithm = "RS256";
+        /**
+         * Каталог с ключами: {@code <kid>.key} (PKCS#8 PEM) и {@code <kid>.pub} (X.509 PEM)
+         */
+        private String keysLocation;
+        /**
+         * kid ключа для подписи новых токенов; по умолчанию последний по имени kid с приватным ключом
+         */
+        private String activeKid;
+        /**
+         * Период перечитывания каталога ключей
+         */
+        private Duration reloadInterval = Duration.ofSeconds(60);
+        /**
+         * Разрешить временную пару ключей, если keys-location не задан (только профиль dev).
+         * Временный ключ у каждого экземпляра свой и меняется при перезапуске
+         */
+        private boolean allowEphemeralKeys = false;
+    }
 
-    @Bean
-    public SecretKey secretKey() {
-        byte[] decodedKey = Base64.getDecoder().decode(secret);
-        return Keys.hmacShaKeyFor(decodedKey);
+    /**
+     * Проверка токенов без kid устаревшим HMAC-ключом на время миграции
+     */
+    private LegacyHmac legacyHmac = new LegacyHmac();
+
+    /**
+     * Выключено по умолчанию: с HMAC-ключом можно выпустить токен с любыми claims.
+     * Ключ задаётся только переменной окружения JWT_LEGACY_HMAC_SECRET и не хранится в репозитории
+     */
+    @Data
+    public static class LegacyHmac {
+        private boolean enabled = false;
+        /**
+         * HMAC-ключ в Base64
+         */
+        private String secret;
+        /**
+         * После этого момента токены без kid отклоняются; обязателен при enabled
+         */
+        private Instant acceptUntil;
     }
 
+    /**
+     * Парсер проверяет подпись ключом, выбранным по kid из заголовка токена
+     * @return JwtParser для верификации
+     */
     @Bean
-    public JwtParser jwtParser(SecretKey secretKey, JwtConfig jwtconfig) {
+    public JwtParser jwtParser(JwtKeyRing jwtKeyRing) {
         return Jwts.parser()
-                .verifyWith(secretKey)
+                .keyLocator(jwtKeyRing)
                 .requireIssuer(this.issuer)
                 .build();
     }
 
-    public String getSecret() {
-        return secret;
-    }
-
-    public void setSecret(String secret) {
-        this.secret = secret;
-    }
-
     public long getAccessExpiration() {
         return accessExpiration;
     }
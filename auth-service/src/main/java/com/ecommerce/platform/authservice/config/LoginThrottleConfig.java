@@ -0,0 +1,40 @@
+package com.ecommerce.platform.authservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "login-throttle")
+public class LoginThrottleConfig {
+
+    private boolean enabled = true;
+
+    /**
+     * Длина скользящего окна
+     */
+    private Duration window = Duration.ofMinutes(1);
+
+    /**
+     * Максимум попыток входа на один email за окно; успешный вход сбрасывает счётчик
+     */
+    private int maxAttemptsPerEmail = 10;
+
+    /**
+     * Максимум попыток входа с одного IP за окно
+     */
+    private int maxAttemptsPerIp = 100;
+
+    /**
+     * Максимальное количество отслеживаемых ключей каждого вида; самые давние вытесняются
+     */
+    private int maxTrackedKeys = 100_000;
+
+    /**
+     * Количество независимо блокируемых сегментов
+     */
+    private int stripes = 64;
+}
@@ -0,0 +1,38 @@
+package com.ecommerce.platform.authservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "outbox")
+public class OutboxConfig {
+
+    /**
+     * Публикатор событий: log | in-memory
+     */
+    private String publisher = "log";
+
+    private Relay relay = new Relay();
+
+    @Data
+    public static class Relay {
+        /**
+         * Включает ретрансляцию outbox
+         */
+        private boolean enabled = true;
+
+        /**
+         * Максимальное количество событий в одной публикации
+         */
+        private int batchSize = 100;
+
+        /**
+         * Сколько неполная порция ждёт добора событий; полные порции отправляются сразу одна за другой
+         */
+        private Duration linger = Duration.ofMillis(200);
+    }
+}
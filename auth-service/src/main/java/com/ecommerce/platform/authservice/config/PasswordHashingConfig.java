@@ -0,0 +1,40 @@
+package com.ecommerce.platform.authservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "password-hashing")
+public class PasswordHashingConfig {
+
+    /**
+     * Алгоритм для новых хэшей: bcrypt или pbkdf2. Хэши другого алгоритма
+     * пересчитываются при следующем успешном входе
+     */
+    private String encodingId = "bcrypt";
+
+    /**
+     * Коэффициент стоимости BCrypt (log2 числа раундов, 4..31); хэши с меньшим
+     * коэффициентом пересчитываются при следующем успешном входе
+     */
+    private int bcryptStrength = 10;
+
+    /**
+     * Количество потоков для хэширования паролей; по умолчанию число ядер
+     */
+    private int poolSize = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Максимальное количество ожидающих задач; при заполнении запрос сразу получает 503
+     */
+    private int queueCapacity = 4 * Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Максимальное время ожидания результата хэширования
+     */
+    private Duration timeout = Duration.ofSeconds(2);
+}
@@ -0,0 +1,38 @@
+package com.ecommerce.platform.authservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "refresh-token.purge")
+public class RefreshTokenPurgeConfig {
+
+    /**
+     * Включает фоновую очистку истёкших refresh-токенов
+     */
+    private boolean enabled = true;
+
+    /**
+     * Расписание запуска очистки
+     */
+    private String cron = "0 */10 * * * *";
+
+    /**
+     * Количество строк, удаляемых одной транзакцией
+     */
+    private int batchSize = 1000;
+
+    /**
+     * Пауза между порциями, чтобы не занимать БД непрерывно
+     */
+    private Duration pause = Duration.ofMillis(100);
+
+    /**
+     * Максимальная длительность одного запуска; остаток удаляется следующим запуском
+     */
+    private Duration maxDuration = Duration.ofSeconds(30);
+}
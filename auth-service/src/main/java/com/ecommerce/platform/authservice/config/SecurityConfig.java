@@ -1,12 +1,16 @@
 package com.ecommerce.platform.authservice.config;
 
 
+import com.ecommerce.platform.authservice.security.BoundedPasswordEncoder;
 import com.ecommerce.platform.authservice.security.JwtAuthenticationFilter;
 import com.ecommerce.platform.authservice.security.JwtService;
+import com.ecommerce.platform.authservice.security.TokenEpochRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authorization.AuthorizationDecision;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -14,10 +18,14 @@ import org.springframework.security.config.annotation.web.configurers.AbstractHt
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.util.Map;
+
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
@@ -25,20 +33,32 @@ public class SecurityConfig {
     @Bean
     public JwtAuthenticationFilter jwtAuthenticationFilter(
             JwtService jwtService,
-            UserDetailsService userDetailsService) {
-        return new JwtAuthenticationFilter(jwtService, userDetailsService);
+            UserDetailsService userDetailsService,
+            JwtConfig jwtConfig,
+            TokenEpochRegistry tokenEpochRegistry,
+            MeterRegistry meterRegistry) {
+        return new JwtAuthenticationFilter(jwtService, userDetailsService, jwtConfig.getAuthenticationMode(),
+                tokenEpochRegistry, meterRegistry);
     }
 
     @Bean
     public SecurityFilterChain securityFilterChain(
             HttpSecurity http,
             AuthenticationProvider authenticationProvider,
-            JwtAuthenticationFilter jwtAuthenticationFilter) throws Exception {
+            JwtAuthenticationFilter jwtAuthenticationFilter,
+            IntrospectionConfig introspectionConfig) throws Exception {
 
         return http
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth -> auth
+                        .requestMatchers("/api/auth/logout-all").authenticated()
+                        .requestMatchers("/api/auth/admin/**").hasRole("ADMIN")
                         .requestMatchers("/api/auth/**").permitAll()
+                        .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
+                        // Проверка токенов для других сервисов: только с сервисным токеном
+                        .requestMatchers("/internal/introspect/**").access((authentication, context) ->
+                                new AuthorizationDecision(introspectionConfig.accepts(
+                                        context.getRequest().getHeader(IntrospectionConfig.SERVICE_TOKEN_HEADER))))
                         .anyRequest().authenticated()
                 )
                 .sessionManagement(session -> session
@@ -59,8 +79,20 @@ public class SecurityConfig {
         return authProvider;
     }
 
+    /**
+     * Хэши хранятся с префиксом алгоритма ({bcrypt}, {pbkdf2}); хэши без префикса
+     * считаются BCrypt. Хэширование выполняется в отдельном ограниченном пуле,
+     * а не на потоках Tomcat
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(PasswordHashingConfig passwordHashingConfig, MeterRegistry meterRegistry) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(passwordHashingConfig.getBcryptStrength());
+        Map<String, PasswordEncoder> encoders = Map.of(
+                "bcrypt", bcrypt,
+                "pbkdf2", Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8()
+        );
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(passwordHashingConfig.getEncodingId(), encoders);
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        return new BoundedPasswordEncoder(delegating, passwordHashingConfig, meterRegistry);
     }
 }
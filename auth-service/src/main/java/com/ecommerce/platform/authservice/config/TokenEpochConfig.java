@@ -0,0 +1,33 @@
+package com.ecommerce.platform.authservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "token-epoch")
+public class TokenEpochConfig {
+
+    /**
+     * Канал Postgres LISTEN/NOTIFY, по которому экземпляры сервиса обмениваются новыми эпохами
+     */
+    private String channel = "token_epoch";
+
+    /**
+     * Подписываться на канал; без подписки экземпляр видит только свои изменения и загруженные при старте
+     */
+    private boolean listenEnabled = true;
+
+    /**
+     * Пауза перед повторным подключением слушателя после обрыва соединения
+     */
+    private Duration reconnectDelay = Duration.ofSeconds(5);
+
+    /**
+     * Как часто из памяти удаляются эпохи, поднятые раньше чем jwt.access-expiration назад
+     */
+    private Duration evictionInterval = Duration.ofMinutes(1);
+}
@@ -0,0 +1,23 @@
+package com.ecommerce.platform.authservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "user-cache")
+public class UserCacheConfig {
+
+    /**
+     * Максимальное количество закэшированных пользователей
+     */
+    private long maximumSize = 10_000;
+
+    /**
+     * Время жизни записи с момента загрузки из БД
+     */
+    private Duration ttl = Duration.ofMinutes(10);
+}
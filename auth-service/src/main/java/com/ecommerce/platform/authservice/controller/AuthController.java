@@ -2,11 +2,18 @@ package com.ecommerce.platform.authservice.controller;
 
 
 import com.ecommerce.platform.authservice.dto.RefreshTokenRequest;
+import com.ecommerce.platform.authservice.exception.UserNotFoundException;
+import com.ecommerce.platform.authservice.model.User;
+import com.ecommerce.platform.authservice.security.LoginAttemptLimiter;
 import com.ecommerce.platform.authservice.service.AuthService;
+import com.ecommerce.platform.authservice.service.UserService;
 import dto.AuthRequestDto;
 import dto.AuthResponseDto;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -19,14 +26,22 @@ import org.springframework.web.bind.annotation.RestController;
 public class AuthController {
 
     private final AuthService authService;
+    private final LoginAttemptLimiter loginAttemptLimiter;
+    private final UserService userService;
 
-    public AuthController(AuthService authService) {
+    public AuthController(AuthService authService, LoginAttemptLimiter loginAttemptLimiter, UserService userService) {
         this.authService = authService;
+        this.loginAttemptLimiter = loginAttemptLimiter;
+        this.userService = userService;
     }
 
     @PostMapping("/login")
-    public ResponseEntity<AuthResponseDto> authenticate(@Valid @RequestBody AuthRequestDto request) {
-        return ResponseEntity.ok(authService.authenticate(request));
+    public ResponseEntity<AuthResponseDto> authenticate(@Valid @RequestBody AuthRequestDto request,
+                                                        HttpServletRequest httpRequest) {
+        loginAttemptLimiter.acquire(request.email(), httpRequest.getRemoteAddr());
+        AuthResponseDto response = authService.authenticate(request);
+        loginAttemptLimiter.onSuccess(request.email());
+        return ResponseEntity.ok(response);
     }
 
     @PostMapping("/refresh")
@@ -40,5 +55,13 @@ public class AuthController {
         return ResponseEntity.ok().build();
     }
 
+    @PostMapping("/logout-all")
+    public ResponseEntity<Void> logoutAll(@AuthenticationPrincipal UserDetails principal) {
+        User user = userService.getUserByEmail(principal.getUsername())
+                .orElseThrow(() -> new UserNotFoundException("User not found"));
+        authService.logoutAll(user.getId());
+        return ResponseEntity.noContent().build();
+    }
+
 
 }
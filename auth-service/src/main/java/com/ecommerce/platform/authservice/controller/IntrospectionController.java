@@ -0,0 +1,53 @@
+package com.ecommerce.platform.authservice.controller;
+
+import com.ecommerce.platform.authservice.dto.IntrospectRequest;
+import com.ecommerce.platform.authservice.service.TokenIntrospection;
+import com.ecommerce.platform.authservice.service.TokenIntrospectionService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * REST-вариант проверки токенов, эквивалентный gRPC TokenIntrospectionService.
+ * Путь /internal не маршрутизируется api-gateway и доступен только внутри сети сервисов.
+ */
+@Validated
+@RestController
+@RequestMapping("/internal/introspect")
+public class IntrospectionController {
+
+    private final TokenIntrospectionService introspectionService;
+    private final Counter tokensCounter;
+
+    public IntrospectionController(TokenIntrospectionService introspectionService, MeterRegistry meterRegistry) {
+        this.introspectionService = introspectionService;
+        this.tokensCounter = Counter.builder("auth.introspection.tokens")
+                .description("Tokens checked via introspection")
+                .tag("transport", "rest")
+                .register(meterRegistry);
+    }
+
+    @PostMapping
+    public ResponseEntity<TokenIntrospection> introspect(@Valid @RequestBody IntrospectRequest request) {
+        tokensCounter.increment();
+        return ResponseEntity.ok(introspectionService.introspect(request.token(), request.tokenTypeHint()));
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<List<TokenIntrospection>> introspectBatch(
+            @RequestBody @NotEmpty List<@Valid IntrospectRequest> requests) {
+        tokensCounter.increment(requests.size());
+        return ResponseEntity.ok(introspectionService.introspectAll(
+                requests.stream().map(IntrospectRequest::token).toList(),
+                requests.stream().map(IntrospectRequest::tokenTypeHint).toList()));
+    }
+}
@@ -0,0 +1,33 @@
+package com.ecommerce.platform.authservice.controller;
+
+import com.ecommerce.platform.authservice.security.JwtKeyRing;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+
+/**
+ * Публикует публичные ключи подписи (JWKS), чтобы другие сервисы
+ * проверяли токены локально, не обращаясь к auth-service.
+ */
+@RestController
+@RequestMapping("/api/auth")
+public class JwksController {
+
+    private final JwtKeyRing jwtKeyRing;
+
+    public JwksController(JwtKeyRing jwtKeyRing) {
+        this.jwtKeyRing = jwtKeyRing;
+    }
+
+    @GetMapping(value = "/.well-known/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> jwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic())
+                .body(jwtKeyRing.jwksJson());
+    }
+}
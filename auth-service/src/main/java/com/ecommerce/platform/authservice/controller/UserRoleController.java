@@ -0,0 +1,36 @@
+package com.ecommerce.platform.authservice.controller;
+
+import com.ecommerce.platform.authservice.service.UserService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Назначение и отзыв ролей, только для ROLE_ADMIN. Отзыв роли отзывает и выпущенные
+ * access-токены пользователя, новые роли попадут в токен при обновлении
+ */
+@RestController
+@RequestMapping("/api/auth/admin/users/{userId}/roles/{role}")
+public class UserRoleController {
+
+    private final UserService userService;
+
+    public UserRoleController(UserService userService) {
+        this.userService = userService;
+    }
+
+    @PutMapping
+    public ResponseEntity<Void> assignRole(@PathVariable long userId, @PathVariable String role) {
+        userService.assignRole(userId, role);
+        return ResponseEntity.noContent().build();
+    }
+
+    @DeleteMapping
+    public ResponseEntity<Void> revokeRole(@PathVariable long userId, @PathVariable String role) {
+        userService.revokeRole(userId, role);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,202 @@
+package com.ecommerce.platform.authservice.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Источник соединений для read-only транзакций.
+ * <p>
+ * Реплики выбираются по кругу среди доступных. Реплика исключается, если проверка отставания
+ * не прошла, WAL receiver не в состоянии streaming или молчит дольше {@code receiverTimeout},
+ * отставание больше {@code maxLag} или не удалось получить соединение; тогда
+ * чтение уходит в основной пул. Состояние реплик обновляется по расписанию.
+ * <p>
+ * Метрики: {@code datasource.replica.lag{pool}} (секунды), {@code datasource.replica.available{pool}},
+ * {@code datasource.routing.connections{target}}; метрики пулов — {@code hikaricp.*{pool}}.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements DisposableBean {
+
+    /**
+     * Состояние реплики: режим восстановления, время с последней применённой транзакции,
+     * применён ли весь полученный WAL, статус WAL receiver'а и время с его последнего
+     * сообщения от основной БД. Пока receiver получает сообщения, применённый полученный WAL
+     * означает актуальные данные даже без новых транзакций. Без receiver'а реплика застывает
+     * на последнем полученном WAL, и проверка LSN одна этого не замечает.
+     * <p>
+     * Статус и время receiver'а видны только ролям с pg_read_all_stats (или pg_monitor);
+     * у остальных они NULL, и реплика исключается.
+     */
+    private static final String REPLICA_STATE_QUERY = """
+            SELECT pg_is_in_recovery(),
+                   COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0),
+                   pg_last_wal_receive_lsn() IS NOT DISTINCT FROM pg_last_wal_replay_lsn(),
+                   r.status,
+                   EXTRACT(EPOCH FROM now() - r.last_msg_receipt_time)
+            FROM (SELECT 1) AS one
+            LEFT JOIN pg_stat_wal_receiver r ON true""";
+
+    private final DataSource primary;
+    private final List<ReplicaPool> replicas;
+    private final Duration maxLag;
+    private final Duration receiverTimeout;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter replicaConnections;
+    private final Counter primaryFallbacks;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicas,
+                                   Duration maxLag, Duration receiverTimeout, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(ReplicaPool::new).toList();
+        this.maxLag = maxLag;
+        this.receiverTimeout = receiverTimeout;
+        this.replicaConnections = routingCounter(meterRegistry, "replica");
+        this.primaryFallbacks = routingCounter(meterRegistry, "primary_fallback");
+        for (ReplicaPool replica : this.replicas) {
+            Gauge.builder("datasource.replica.lag", replica, r -> r.lagSeconds)
+                    .description("Replication lag observed by the last check")
+                    .baseUnit("seconds")
+                    .tag("pool", replica.name())
+                    .register(meterRegistry);
+            Gauge.builder("datasource.replica.available", replica, r -> r.available ? 1 : 0)
+                    .description("Whether read-only transactions are routed to the replica")
+                    .tag("pool", replica.name())
+                    .register(meterRegistry);
+        }
+        checkReplicas();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        int size = replicas.size();
+        int start = size == 0 ? 0 : Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            ReplicaPool replica = replicas.get((start + i) % size);
+            if (!replica.available) {
+                continue;
+            }
+            try {
+                Connection connection = replica.dataSource.getConnection();
+                replicaConnections.increment();
+                return connection;
+            } catch (SQLException ex) {
+                replica.markUnavailable("connection failed: " + ex.getMessage());
+            }
+        }
+        primaryFallbacks.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Replica pools use configured credentials");
+    }
+
+    /**
+     * Проверяет доступность, WAL receiver и отставание каждой реплики
+     */
+    @Scheduled(fixedDelayString = "${datasource-routing.lag-check-interval:5s}",
+            initialDelayString = "${datasource-routing.lag-check-interval:5s}")
+    public void checkReplicas() {
+        for (ReplicaPool replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(REPLICA_STATE_QUERY)) {
+                rs.next();
+                check(replica, rs);
+            } catch (SQLException ex) {
+                replica.markUnavailable("lag check failed: " + ex.getMessage());
+            }
+        }
+    }
+
+    private void check(ReplicaPool replica, ResultSet rs) throws SQLException {
+        if (!rs.getBoolean(1)) {
+            replica.lagSeconds = 0;
+            replica.markAvailable(0);
+            return;
+        }
+        double sinceReplaySeconds = rs.getDouble(2);
+        boolean replayedAllReceived = rs.getBoolean(3);
+        String receiverStatus = rs.getString(4);
+        double sinceReceiptSeconds = rs.getDouble(5);
+        boolean receiptKnown = !rs.wasNull();
+
+        if (!"streaming".equals(receiverStatus) || !receiptKnown) {
+            replica.lagSeconds = sinceReplaySeconds;
+            replica.markUnavailable("WAL receiver is " + (receiverStatus != null ? receiverStatus : "not running or not visible"));
+            return;
+        }
+        if (sinceReceiptSeconds * 1000 > receiverTimeout.toMillis()) {
+            replica.lagSeconds = sinceReceiptSeconds;
+            replica.markUnavailable("no message from primary for %.1fs".formatted(sinceReceiptSeconds));
+            return;
+        }
+        double lagSeconds = replayedAllReceived ? 0 : sinceReplaySeconds;
+        replica.lagSeconds = lagSeconds;
+        if (lagSeconds * 1000 > maxLag.toMillis()) {
+            replica.markUnavailable("lag %.1fs exceeds %s".formatted(lagSeconds, maxLag));
+        } else {
+            replica.markAvailable(lagSeconds);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        replicas.forEach(replica -> replica.dataSource.close());
+    }
+
+    private static Counter routingCounter(MeterRegistry meterRegistry, String target) {
+        return Counter.builder("datasource.routing.connections")
+                .description("Read-only connections by the pool that served them")
+                .tag("target", target)
+                .register(meterRegistry);
+    }
+
+    private static final class ReplicaPool {
+        private final HikariDataSource dataSource;
+        private volatile boolean available;
+        private volatile boolean checked;
+        private volatile double lagSeconds;
+
+        ReplicaPool(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        String name() {
+            return dataSource.getPoolName();
+        }
+
+        void markAvailable(double lagSeconds) {
+            if (!available) {
+                log.info("Replica {} is available for reads, lag {}s", name(), lagSeconds);
+            }
+            available = true;
+            checked = true;
+        }
+
+        void markUnavailable(String reason) {
+            if (available || !checked) {
+                log.warn("Replica {} excluded from reads, falling back to primary: {}", name(), reason);
+            }
+            available = false;
+            checked = true;
+        }
+    }
+}
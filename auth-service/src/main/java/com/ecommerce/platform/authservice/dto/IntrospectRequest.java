@@ -0,0 +1,13 @@
+package com.ecommerce.platform.authservice.dto;
+
+import com.ecommerce.platform.authservice.service.TokenIntrospection;
+import jakarta.validation.constraints.NotBlank;
+
+/**
+ * @param token         значение токена
+ * @param tokenTypeHint тип токена; если не задан, определяется по формату
+ */
+public record IntrospectRequest(
+        @NotBlank String token,
+        TokenIntrospection.TokenType tokenTypeHint
+) {}
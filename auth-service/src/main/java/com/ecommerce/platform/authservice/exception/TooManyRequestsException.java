@@ -0,0 +1,14 @@
+package com.ecommerce.platform.authservice.exception;
+
+import lombok.Getter;
+
+@Getter
+public class TooManyRequestsException extends BusinessException {
+
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
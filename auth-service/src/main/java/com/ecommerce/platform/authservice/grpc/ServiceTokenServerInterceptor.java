@@ -0,0 +1,36 @@
+package com.ecommerce.platform.authservice.grpc;
+
+import com.ecommerce.platform.authservice.config.IntrospectionConfig;
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import org.springframework.stereotype.Component;
+
+/**
+ * Пропускает вызов gRPC-сервиса только с сервисным токеном в метаданных
+ * {@code x-service-token}, иначе закрывает его со статусом UNAUTHENTICATED
+ */
+@Component
+public class ServiceTokenServerInterceptor implements ServerInterceptor {
+
+    static final Metadata.Key<String> SERVICE_TOKEN_KEY = Metadata.Key.of(
+            IntrospectionConfig.SERVICE_TOKEN_HEADER.toLowerCase(), Metadata.ASCII_STRING_MARSHALLER);
+
+    private final IntrospectionConfig config;
+
+    public ServiceTokenServerInterceptor(IntrospectionConfig config) {
+        this.config = config;
+    }
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        if (!config.accepts(headers.get(SERVICE_TOKEN_KEY))) {
+            call.close(Status.UNAUTHENTICATED.withDescription("Service token required"), new Metadata());
+            return new ServerCall.Listener<>() { };
+        }
+        return next.startCall(call, headers);
+    }
+}
@@ -0,0 +1,99 @@
+package com.ecommerce.platform.authservice.grpc;
+
+import com.ecommerce.platform.authservice.service.TokenIntrospection;
+import com.ecommerce.platform.authservice.service.TokenIntrospectionService;
+import introspection.InactiveReason;
+import introspection.IntrospectBatchRequest;
+import introspection.IntrospectBatchResponse;
+import introspection.IntrospectRequest;
+import introspection.IntrospectResponse;
+import introspection.TokenIntrospectionServiceGrpc;
+import introspection.TokenType;
+import io.grpc.stub.StreamObserver;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.grpc.server.service.GrpcService;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * gRPC-обёртка над {@link TokenIntrospectionService}.
+ * Пакетный вызов проверяет все токены за один запрос и одно обращение к хранилищу refresh-токенов.
+ * Вызов требует сервисного токена ({@link ServiceTokenServerInterceptor}).
+ */
+@GrpcService(interceptors = ServiceTokenServerInterceptor.class)
+public class TokenIntrospectionGrpcService extends TokenIntrospectionServiceGrpc.TokenIntrospectionServiceImplBase {
+
+    private final TokenIntrospectionService introspectionService;
+    private final Counter tokensCounter;
+
+    public TokenIntrospectionGrpcService(TokenIntrospectionService introspectionService, MeterRegistry meterRegistry) {
+        this.introspectionService = introspectionService;
+        this.tokensCounter = Counter.builder("auth.introspection.tokens")
+                .description("Tokens checked via introspection")
+                .tag("transport", "grpc")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void introspect(IntrospectRequest request, StreamObserver<IntrospectResponse> responseObserver) {
+        TokenIntrospection result = introspectionService.introspect(request.getToken(), toDomain(request.getTokenTypeHint()));
+        tokensCounter.increment();
+        responseObserver.onNext(toProto(result));
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void introspectBatch(IntrospectBatchRequest request, StreamObserver<IntrospectBatchResponse> responseObserver) {
+        List<String> tokens = new ArrayList<>(request.getRequestsCount());
+        List<TokenIntrospection.TokenType> types = new ArrayList<>(request.getRequestsCount());
+        for (IntrospectRequest item : request.getRequestsList()) {
+            tokens.add(item.getToken());
+            types.add(toDomain(item.getTokenTypeHint()));
+        }
+        IntrospectBatchResponse.Builder response = IntrospectBatchResponse.newBuilder();
+        for (TokenIntrospection result : introspectionService.introspectAll(tokens, types)) {
+            response.addResults(toProto(result));
+        }
+        tokensCounter.increment(tokens.size());
+        responseObserver.onNext(response.build());
+        responseObserver.onCompleted();
+    }
+
+    private static TokenIntrospection.TokenType toDomain(TokenType type) {
+        return switch (type) {
+            case ACCESS -> TokenIntrospection.TokenType.ACCESS;
+            case REFRESH -> TokenIntrospection.TokenType.REFRESH;
+            default -> null;
+        };
+    }
+
+    private static IntrospectResponse toProto(TokenIntrospection result) {
+        IntrospectResponse.Builder builder = IntrospectResponse.newBuilder()
+                .setActive(result.active())
+                .setTokenType(result.tokenType() == TokenIntrospection.TokenType.ACCESS
+                        ? TokenType.ACCESS : TokenType.REFRESH);
+        if (result.reason() != null) {
+            builder.setReason(switch (result.reason()) {
+                case EXPIRED -> InactiveReason.EXPIRED;
+                case INVALID -> InactiveReason.INVALID;
+                case REVOKED -> InactiveReason.REVOKED;
+            });
+        }
+        if (!result.active()) {
+            return builder.build();
+        }
+        builder.setSubject(result.subject()).addAllRoles(result.roles());
+        if (result.userId() != null) {
+            builder.setUserId(result.userId());
+        }
+        if (result.expiresAt() != null) {
+            builder.setExpiresAtEpochSecond(result.expiresAt().getEpochSecond());
+        }
+        if (result.tokenId() != null) {
+            builder.setTokenId(result.tokenId());
+        }
+        return builder.build();
+    }
+}
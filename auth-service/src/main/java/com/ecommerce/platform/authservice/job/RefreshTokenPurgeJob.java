@@ -0,0 +1,70 @@
+package com.ecommerce.platform.authservice.job;
+
+import com.ecommerce.platform.authservice.config.RefreshTokenPurgeConfig;
+import com.ecommerce.platform.authservice.service.RefreshTokenService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Фоновая очистка истёкших refresh-токенов порциями ограниченного размера.
+ * Каждая порция удаляется отдельной короткой транзакцией, между порциями
+ * выдерживается пауза, длительность запуска ограничена.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "refresh-token.purge", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RefreshTokenPurgeJob {
+
+    private final RefreshTokenService refreshTokenService;
+    private final RefreshTokenPurgeConfig config;
+    private final Counter purgedCounter;
+    private final Timer purgeTimer;
+
+    public RefreshTokenPurgeJob(RefreshTokenService refreshTokenService,
+                                RefreshTokenPurgeConfig config,
+                                MeterRegistry meterRegistry) {
+        this.refreshTokenService = refreshTokenService;
+        this.config = config;
+        this.purgedCounter = Counter.builder("refresh.tokens.purged")
+                .description("Expired refresh tokens deleted by the purge job")
+                .register(meterRegistry);
+        this.purgeTimer = Timer.builder("refresh.tokens.purge")
+                .description("Time spent in one purge run")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${refresh-token.purge.cron:0 */10 * * * *}")
+    public void purge() {
+        purgeTimer.record(this::purgeInChunks);
+    }
+
+    private void purgeInChunks() {
+        long deadline = System.nanoTime() + config.getMaxDuration().toNanos();
+        long total = 0;
+        int deleted;
+        do {
+            deleted = refreshTokenService.deleteExpiredBatch(config.getBatchSize());
+            total += deleted;
+            purgedCounter.increment(deleted);
+        } while (deleted == config.getBatchSize() && System.nanoTime() < deadline && pause());
+
+        if (total > 0) {
+            log.info("Purged {} expired refresh tokens", total);
+        }
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(config.getPause().toMillis());
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
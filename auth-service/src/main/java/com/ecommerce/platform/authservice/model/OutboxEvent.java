@@ -0,0 +1,43 @@
+package com.ecommerce.platform.authservice.model;
+
+import com.ecommerce.platform.authservice.outbox.OutboxEventType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Событие, записанное в той же транзакции, что и изменение, которое оно описывает.
+ * Строка удаляется после публикации ретранслятором.
+ */
+@Entity
+@Table(name = "outbox_events")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 64)
+    private OutboxEventType eventType;
+
+    /**
+     * Ключ упорядочивания: события одного пользователя публикуются в порядке id
+     */
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(nullable = false, columnDefinition = "text")
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
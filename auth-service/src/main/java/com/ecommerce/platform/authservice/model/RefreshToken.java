@@ -11,7 +11,11 @@ import java.time.Instant;
 @Data
 @NoArgsConstructor
 @Entity
-@Table(name = "refresh_tokens")
+@Table(name = "refresh_tokens",
+        indexes = {
+                @Index(name = "idx_refresh_tokens_previous_token", columnList = "previous_token"),
+                @Index(name = "idx_refresh_tokens_expires_date", columnList = "expires_date")
+        })
 public class RefreshToken {
 
     @Id
@@ -24,7 +28,14 @@ public class RefreshToken {
     @Column(nullable = false, name = "expires_date")
     private Instant expiryDate;
 
-    @OneToOne(fetch = FetchType.LAZY)
+    /**
+     * Значение токена до последней ротации: повторное предъявление
+     * уже использованного токена означает его компрометацию
+     */
+    @Column(name = "previous_token")
+    private String previousToken;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", referencedColumnName = "id")
     private User user;
 
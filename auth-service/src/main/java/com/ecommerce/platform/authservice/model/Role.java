@@ -1,12 +1,18 @@
 package com.ecommerce.platform.authservice.model;
 
+import com.ecommerce.platform.authservice.config.HibernateCacheConfig;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.security.core.GrantedAuthority;
 
 @Data
 @Entity
 @Table
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.ROLE_REGION)
+@EntityListeners(RoleCacheInvalidationListener.class)
 public class Role implements GrantedAuthority {
 
     @Id
@@ -0,0 +1,26 @@
+package com.ecommerce.platform.authservice.model;
+
+import com.ecommerce.platform.authservice.service.UserPrincipalCache;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * Сбрасывает весь кэш принципалов при переименовании или удалении роли:
+ * имена ролей хранятся в каждом закэшированном принципале. Кэш очищается ещё раз после
+ * коммита: вход, прочитавший старое имя до коммита, успел бы снова положить его в кэш.
+ * Регионы Hibernate для ролей и запросов Hibernate сбрасывает сам.
+ */
+public class RoleCacheInvalidationListener {
+
+    private final UserPrincipalCache userPrincipalCache;
+
+    public RoleCacheInvalidationListener(UserPrincipalCache userPrincipalCache) {
+        this.userPrincipalCache = userPrincipalCache;
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void onChange(Role role) {
+        userPrincipalCache.evictAll();
+    }
+}
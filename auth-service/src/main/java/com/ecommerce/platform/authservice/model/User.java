@@ -1,19 +1,26 @@
 package com.ecommerce.platform.authservice.model;
+import com.ecommerce.platform.authservice.config.HibernateCacheConfig;
+import com.ecommerce.platform.authservice.security.GrantedAuthorities;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.Fetch;
 import org.hibernate.annotations.FetchMode;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.time.Instant;
 import java.util.*;
 import java.util.stream.Collectors;
 
 @Entity
+@EntityListeners(UserCacheInvalidationListener.class)
 @Table(name = "users")
 @Data
 @NoArgsConstructor
@@ -29,20 +36,40 @@ public class User implements UserDetails {
     private String email;
 
     @Column(nullable = false)
+    @ToString.Exclude
     private String password;
 
+    /**
+     * Эпоха токенов: access-токены с меньшей эпохой отзываются (logoutAll)
+     */
+    @Column(name = "token_epoch", nullable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private int tokenEpoch = 0;
+
+    /**
+     * Когда эпоха токенов была поднята в последний раз; по нему устаревшие эпохи не загружаются в память
+     */
+    @Column(name = "token_epoch_bumped_at")
+    private Instant tokenEpochBumpedAt;
+
     @ManyToMany(fetch = FetchType.LAZY)
     @Fetch(FetchMode.JOIN)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.USER_ROLES_REGION)
     @JoinTable(name ="users_roles",
             joinColumns = @JoinColumn(name ="user_id"),
             inverseJoinColumns = @JoinColumn (name ="role_id"))
     @Builder.Default
+    @ToString.Exclude
     private Set<Role> roles = new HashSet<>();
 
     @Override
     public Set<? extends GrantedAuthority> getAuthorities() {
-        SimpleGrantedAuthority authority = new SimpleGrantedAuthority(roles.toString());
-        return Set.of(authority);
+        List<String> roleNames = new ArrayList<>(roles.size());
+        for (Role role : roles) {
+            roleNames.add(role.getRole());
+        }
+        return GrantedAuthorities.of(roleNames);
     }
 
     public String getPassword() {
@@ -78,19 +105,19 @@ public class User implements UserDetails {
         return true;
     }
 
+    /**
+     * Равенство по идентификатору: не затрагивает ленивую коллекцию ролей
+     * и не меняется при смене пароля. Несохранённые сущности равны только себе.
+     */
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
-        User user = (User) o;
-        return Objects.equals(id, user.id) &&
-                Objects.equals(email, user.email) &&
-                Objects.equals(password, user.password) &&
-                Objects.equals(roles, user.roles);
+        if (!(o instanceof User user)) return false;
+        return id != null && id.equals(user.getId());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, email, password, roles);
+        return User.class.hashCode();
     }
 }
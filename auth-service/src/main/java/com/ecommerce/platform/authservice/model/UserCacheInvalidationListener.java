@@ -0,0 +1,25 @@
+package com.ecommerce.platform.authservice.model;
+
+import com.ecommerce.platform.authservice.service.UserPrincipalCache;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * Сбрасывает кэш принципалов при изменении полей пользователя (например, пароля)
+ * и при удалении пользователя. Изменение только коллекции roles не вызывает @PostUpdate:
+ * при назначении и отзыве ролей кэш сбрасывает {@code UserService}.
+ */
+public class UserCacheInvalidationListener {
+
+    private final UserPrincipalCache userPrincipalCache;
+
+    public UserCacheInvalidationListener(UserPrincipalCache userPrincipalCache) {
+        this.userPrincipalCache = userPrincipalCache;
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void onChange(User user) {
+        userPrincipalCache.evict(user.getEmail());
+    }
+}
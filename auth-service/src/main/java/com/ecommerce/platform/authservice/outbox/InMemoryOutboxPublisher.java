@@ -0,0 +1,36 @@
+package com.ecommerce.platform.authservice.outbox;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Локальная замена брокера для тестов: накапливает опубликованные события в памяти
+ */
+@Component
+@ConditionalOnProperty(prefix = "outbox", name = "publisher", havingValue = "in-memory")
+public class InMemoryOutboxPublisher implements OutboxPublisher {
+
+    private final List<OutboxMessage> published = new ArrayList<>();
+
+    @Override
+    public synchronized void publish(List<OutboxMessage> batch) {
+        published.addAll(batch);
+    }
+
+    public synchronized List<OutboxMessage> published() {
+        return List.copyOf(published);
+    }
+
+    public synchronized List<OutboxMessage> publishedFor(long userId) {
+        return published.stream()
+                .filter(message -> message.userId() != null && message.userId() == userId)
+                .toList();
+    }
+
+    public synchronized void clear() {
+        published.clear();
+    }
+}
@@ -0,0 +1,23 @@
+package com.ecommerce.platform.authservice.outbox;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Публикатор по умолчанию: пишет события в лог, пока брокер не подключён
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "outbox", name = "publisher", havingValue = "log", matchIfMissing = true)
+public class LoggingOutboxPublisher implements OutboxPublisher {
+
+    @Override
+    public void publish(List<OutboxMessage> batch) {
+        for (OutboxMessage message : batch) {
+            log.info("Outbox event {} {} user={} {}", message.id(), message.type(), message.userId(), message.payload());
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.ecommerce.platform.authservice.outbox;
+
+/**
+ * Типы событий auth-service
+ */
+public enum OutboxEventType {
+    USER_REGISTERED,
+    USER_LOGGED_IN,
+    TOKEN_REFRESHED,
+    REFRESH_TOKEN_REUSED,
+    USER_LOGGED_OUT,
+    ALL_SESSIONS_REVOKED
+}
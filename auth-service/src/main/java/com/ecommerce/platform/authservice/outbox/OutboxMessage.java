@@ -0,0 +1,31 @@
+package com.ecommerce.platform.authservice.outbox;
+
+import com.ecommerce.platform.authservice.model.OutboxEvent;
+
+import java.time.Instant;
+
+/**
+ * Неизменяемое событие, передаваемое публикатору.
+ * <p>
+ * Доставка — «хотя бы один раз» и без гарантии порядка между событиями, записанными
+ * параллельными транзакциями (см. {@link OutboxRelay}). Получатель отбрасывает повторы по id
+ * и не откатывает состояние пользователя событием, которое старше уже применённого по {@code occurredAt}.
+ *
+ * @param id         идентификатор события; получатели используют его для дедупликации
+ * @param type       тип события
+ * @param userId     ключ партиционирования у брокера
+ * @param payload    тело события в JSON
+ * @param occurredAt время записи события
+ */
+public record OutboxMessage(
+        long id,
+        OutboxEventType type,
+        Long userId,
+        String payload,
+        Instant occurredAt
+) {
+    static OutboxMessage of(OutboxEvent event) {
+        return new OutboxMessage(event.getId(), event.getEventType(), event.getUserId(),
+                event.getPayload(), event.getCreatedAt());
+    }
+}
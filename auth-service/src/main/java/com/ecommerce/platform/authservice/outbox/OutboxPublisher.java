@@ -0,0 +1,16 @@
+package com.ecommerce.platform.authservice.outbox;
+
+import java.util.List;
+
+/**
+ * Доставка событий брокеру. Реализация выбирается свойством {@code outbox.publisher}.
+ * <p>
+ * Порция упорядочена по id, но порядок id не обязан совпадать с порядком коммитов
+ * (см. {@link OutboxRelay}). Метод возвращает управление только после того, как брокер
+ * подтвердил всю порцию; исключение означает, что порция будет отправлена повторно
+ * (доставка «хотя бы один раз»).
+ */
+public interface OutboxPublisher {
+
+    void publish(List<OutboxMessage> batch);
+}
@@ -0,0 +1,104 @@
+package com.ecommerce.platform.authservice.outbox;
+
+import com.ecommerce.platform.authservice.config.OutboxConfig;
+import com.ecommerce.platform.authservice.model.OutboxEvent;
+import com.ecommerce.platform.authservice.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Фоновая ретрансляция outbox порциями.
+ * <p>
+ * Каждая порция обрабатывается одной транзакцией: advisory-блокировка, чтение самых старых
+ * событий, публикация, удаление. Блокировка допускает только один работающий ретранслятор
+ * среди экземпляров сервиса, и каждая порция уходит в порядке id. Если публикация
+ * не удалась, транзакция откатывается и порция повторяется на следующем запуске.
+ * <p>
+ * Порядок id (IDENTITY) не совпадает с порядком коммитов: транзакция, получившая меньший id,
+ * может зафиксироваться после того, как событие с большим id уже опубликовано и удалено.
+ * Её событие уйдёт следующей порцией, поэтому события одного пользователя из параллельных
+ * транзакций (например, два входа одновременно) могут прийти не по порядку; последовательные
+ * изменения пользователя приходят по порядку. Получатели не должны полагаться на порядок
+ * доставки, см. {@link OutboxMessage}.
+ * <p>
+ * Полные порции отправляются подряд; неполная ждёт не дольше {@code outbox.relay.linger}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "outbox.relay", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    // Ключ advisory-блокировки ретранслятора ("outbox")
+    private static final long LOCK_KEY = 0x6F7574626F78L;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxPublisher publisher;
+    private final OutboxConfig config;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter publishedCounter;
+    private final Counter failedCounter;
+    private final Timer publishTimer;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       OutboxPublisher publisher,
+                       OutboxConfig config,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.publisher = publisher;
+        this.config = config;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.publishedCounter = Counter.builder("outbox.published")
+                .description("Outbox events handed to the publisher")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("outbox.publish.failures")
+                .description("Outbox batches that failed to publish and will be retried")
+                .register(meterRegistry);
+        this.publishTimer = Timer.builder("outbox.publish")
+                .description("Time to publish one outbox batch")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.linger:200ms}")
+    public void drain() {
+        int batchSize = config.getRelay().getBatchSize();
+        try {
+            Integer relayed;
+            do {
+                relayed = transactionTemplate.execute(status -> relayBatch(batchSize));
+            } while (relayed != null && relayed == batchSize);
+        } catch (RuntimeException ex) {
+            failedCounter.increment();
+            log.warn("Outbox batch publish failed, will retry: {}", ex.getMessage());
+        }
+    }
+
+    private int relayBatch(int batchSize) {
+        if (!outboxEventRepository.tryAdvisoryXactLock(LOCK_KEY)) {
+            return 0;
+        }
+        List<OutboxEvent> events = outboxEventRepository.findByOrderByIdAsc(Limit.of(batchSize));
+        if (events.isEmpty()) {
+            return 0;
+        }
+        List<OutboxMessage> batch = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            batch.add(OutboxMessage.of(event));
+        }
+        publishTimer.record(() -> publisher.publish(batch));
+        outboxEventRepository.deleteAllInBatch(events);
+        publishedCounter.increment(events.size());
+        return events.size();
+    }
+}
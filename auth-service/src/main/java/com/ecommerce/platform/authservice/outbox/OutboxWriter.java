@@ -0,0 +1,42 @@
+package com.ecommerce.platform.authservice.outbox;
+
+import com.ecommerce.platform.authservice.model.OutboxEvent;
+import com.ecommerce.platform.authservice.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Записывает событие в outbox в текущей транзакции. Без транзакции вызов завершается ошибкой:
+ * событие не должно расходиться с изменением, которое оно описывает.
+ * Запрос только вставляет строку; брокер на пути запроса не участвует.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxWriter {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(OutboxEventType type, Long userId, Map<String, ?> payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Cannot serialize outbox payload for " + type, ex);
+        }
+        outboxEventRepository.save(OutboxEvent.builder()
+                .eventType(type)
+                .userId(userId)
+                .payload(json)
+                .createdAt(Instant.now())
+                .build());
+    }
+}
@@ -0,0 +1,27 @@
+package com.ecommerce.platform.authservice.repository;
+
+import com.ecommerce.platform.authservice.model.OutboxEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    /**
+     * Самые старые неопубликованные события
+     * @param limit размер порции
+     * @return события в порядке записи
+     */
+    List<OutboxEvent> findByOrderByIdAsc(Limit limit);
+    /**
+     * Захватывает транзакционную advisory-блокировку без ожидания
+     * @param key ключ блокировки
+     * @return true, если блокировка получена; освобождается при завершении транзакции
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+    boolean tryAdvisoryXactLock(@Param("key") long key);
+}
@@ -0,0 +1,8 @@
+package com.ecommerce.platform.authservice.repository;
+
+/**
+ * Строка проекции принципала: одна строка на роль пользователя,
+ * role равен null, если ролей нет. Не является управляемой сущностью.
+ */
+public record PrincipalRow(Long id, String email, String password, String role) {
+}
@@ -0,0 +1,9 @@
+package com.ecommerce.platform.authservice.repository;
+
+/**
+ * Владелец refresh-токена, возвращаемый запросом ротации
+ */
+public interface RefreshTokenOwner {
+    Long getUserId();
+    String getEmail();
+}
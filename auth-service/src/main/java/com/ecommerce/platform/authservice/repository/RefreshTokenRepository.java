@@ -9,6 +9,9 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -21,6 +24,37 @@ public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long
      * Находит токен, связанный с пользователем
      */
     Optional<RefreshToken> findByUser( User user);
+    /**
+     * Находит сессию, токен которой уже был заменён при ротации
+     */
+    Optional<RefreshToken> findByPreviousToken(String previousToken);
+    /**
+     * Загружает токены с владельцами одним запросом
+     * @param tokens значения токенов
+     * @return найденные токены; отсутствующие значения пропускаются
+     */
+    @Query("""
+            SELECT new com.ecommerce.platform.authservice.repository.RefreshTokenRow(rt.token, rt.expiryDate, u.id, u.email)
+            FROM RefreshToken rt JOIN rt.user u
+            WHERE rt.token IN :tokens
+            """)
+    List<RefreshTokenRow> findRowsByTokenIn(@Param("tokens") Collection<String> tokens);
+
+    /**
+     * Атомарно заменяет действующий refresh-токен новым значением одним запросом:
+     * старый токен перестаёт действовать, срок продлевается, возвращается владелец.
+     * @return владелец токена или empty, если токен не найден или истёк
+     */
+    @Query(value = """
+            UPDATE refresh_tokens rt
+            SET token = :newToken, previous_token = rt.token, expires_date = :newExpiry
+            FROM users u
+            WHERE rt.token = :oldToken AND rt.expires_date > CURRENT_TIMESTAMP AND u.id = rt.user_id
+            RETURNING u.id AS userId, u.email AS email
+            """, nativeQuery = true)
+    Optional<RefreshTokenOwner> rotate(@Param("oldToken") String oldToken,
+                                       @Param("newToken") String newToken,
+                                       @Param("newExpiry") Instant newExpiry);
 
     @Modifying
     @Query("DELETE FROM RefreshToken rt WHERE rt.user = :user ")
@@ -29,4 +63,20 @@ public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long
     @Modifying
     @Query("DELETE FROM RefreshToken rt WHERE  rt.expiryDate < CURRENT_TIMESTAMP ")
     void deleteAllExpired();
+
+    /**
+     * Удаляет не более batchSize истёкших токенов. Строки, заблокированные
+     * другими транзакциями (например, ротацией), пропускаются.
+     * @return количество удалённых строк
+     */
+    @Modifying
+    @Query(value = """
+            DELETE FROM refresh_tokens WHERE id IN (
+                SELECT id FROM refresh_tokens
+                WHERE expires_date < CURRENT_TIMESTAMP
+                ORDER BY expires_date
+                LIMIT :batchSize
+                FOR UPDATE SKIP LOCKED)
+            """, nativeQuery = true)
+    int deleteExpiredBatch(@Param("batchSize") int batchSize);
 }
@@ -0,0 +1,14 @@
+package com.ecommerce.platform.authservice.repository;
+
+import java.time.Instant;
+
+/**
+ * Refresh-токен с владельцем для проверки без загрузки сущностей
+ *
+ * @param token      значение токена
+ * @param expiryDate время истечения
+ * @param userId     идентификатор владельца
+ * @param email      email владельца
+ */
+public record RefreshTokenRow(String token, Instant expiryDate, Long userId, String email) {
+}
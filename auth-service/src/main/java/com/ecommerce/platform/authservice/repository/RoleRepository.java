@@ -0,0 +1,26 @@
+package com.ecommerce.platform.authservice.repository;
+
+import com.ecommerce.platform.authservice.config.HibernateCacheConfig;
+import com.ecommerce.platform.authservice.model.Role;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface RoleRepository extends JpaRepository<Role, Long> {
+    /**
+     * Находит роль по имени. Результат хранится в кэше запросов Hibernate
+     * и сбрасывается автоматически при изменении таблицы ролей
+     * @param role имя роли, например ROLE_USER
+     * @return Optional с ролью или empty, если роль не найдена
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = HibernateCacheConfig.ROLE_QUERY_REGION)
+    })
+    Optional<Role> findByRole(String role);
+}
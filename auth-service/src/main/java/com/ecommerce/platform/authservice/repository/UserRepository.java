@@ -2,8 +2,13 @@ package com.ecommerce.platform.authservice.repository;
 
 import com.ecommerce.platform.authservice.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -14,11 +19,39 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @return Optional с пользователем или empty, если не найден
      */
     Optional<User> findByEmail(String email);
+    /**
+     * Загружает email, хэш пароля и имена ролей пользователя одним запросом
+     * без создания управляемых сущностей
+     * @param email email пользователя
+     * @return по строке на роль; пустой список, если пользователь не найден
+     */
+    @Query("""
+            SELECT new com.ecommerce.platform.authservice.repository.PrincipalRow(u.id, u.email, u.password, r.role)
+            FROM User u LEFT JOIN u.roles r
+            WHERE u.email = :email
+            """)
+    List<PrincipalRow> findPrincipalByEmail(@Param("email") String email);
     /**
      * Проверяет существование пользователя с указанным email
      * @param email email для проверки
      * @return true если пользователь существует
      */
     boolean existsByEmail(String email);
+    /**
+     * Увеличивает эпоху токенов пользователя
+     * @param id идентификатор пользователя
+     * @param bumpedAt время повышения эпохи
+     * @return количество обновлённых строк (0, если пользователь не найден)
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.tokenEpoch = u.tokenEpoch + 1, u.tokenEpochBumpedAt = :bumpedAt WHERE u.id = :id")
+    int incrementTokenEpoch(@Param("id") long id, @Param("bumpedAt") Instant bumpedAt);
+    /**
+     * Текущая эпоха токенов пользователя
+     * @param id идентификатор пользователя
+     * @return эпоха или empty, если пользователь не найден
+     */
+    @Query("SELECT u.tokenEpoch FROM User u WHERE u.id = :id")
+    Optional<Integer> findTokenEpochById(@Param("id") long id);
 
 }
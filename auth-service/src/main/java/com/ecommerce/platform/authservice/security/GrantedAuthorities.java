@@ -0,0 +1,74 @@
+package com.ecommerce.platform.authservice.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Интернированные неизменяемые наборы ролей.
+ * <p>
+ * Различных комбинаций ролей немного, поэтому один и тот же набор
+ * {@link GrantedAuthority} переиспользуется всеми пользователями и запросами
+ * вместо создания новых объектов на каждую загрузку или проверку токена.
+ * Количество интернированных значений ограничено; сверх лимита наборы
+ * создаются как обычно.
+ */
+public final class GrantedAuthorities {
+
+    private static final int MAX_INTERNED = 1024;
+
+    private static final ConcurrentMap<String, GrantedAuthority> AUTHORITIES = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<Set<String>, Set<GrantedAuthority>> SETS = new ConcurrentHashMap<>();
+
+    private GrantedAuthorities() {
+    }
+
+    /**
+     * @param roleNames имена ролей, null-значения пропускаются
+     * @return неизменяемый набор, общий для одинаковых наборов имён
+     */
+    public static Set<GrantedAuthority> of(Collection<String> roleNames) {
+        if (roleNames.isEmpty()) {
+            return Set.of();
+        }
+        Set<String> key = roleNames instanceof Set<String> names ? names : new HashSet<>(roleNames);
+        Set<GrantedAuthority> interned = SETS.get(key);
+        if (interned != null) {
+            return interned;
+        }
+        Set<GrantedAuthority> authorities = build(key);
+        if (SETS.size() >= MAX_INTERNED) {
+            return authorities;
+        }
+        Set<GrantedAuthority> previous = SETS.putIfAbsent(Set.copyOf(key), authorities);
+        return previous != null ? previous : authorities;
+    }
+
+    private static Set<GrantedAuthority> build(Set<String> roleNames) {
+        Set<GrantedAuthority> authorities = new HashSet<>(roleNames.size());
+        for (String roleName : roleNames) {
+            if (roleName != null) {
+                authorities.add(authority(roleName));
+            }
+        }
+        return Set.copyOf(authorities);
+    }
+
+    private static GrantedAuthority authority(String roleName) {
+        GrantedAuthority authority = AUTHORITIES.get(roleName);
+        if (authority != null) {
+            return authority;
+        }
+        authority = new SimpleGrantedAuthority(roleName);
+        if (AUTHORITIES.size() >= MAX_INTERNED) {
+            return authority;
+        }
+        GrantedAuthority previous = AUTHORITIES.putIfAbsent(roleName, authority);
+        return previous != null ? previous : authority;
+    }
+}
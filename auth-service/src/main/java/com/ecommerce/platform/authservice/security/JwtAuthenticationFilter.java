@@ -1,8 +1,12 @@
 package com.ecommerce.platform.authservice.security;
 
 
+import com.ecommerce.platform.authservice.config.JwtConfig.AuthenticationMode;
 import constant.Constant;
+import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -14,6 +18,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -30,10 +35,32 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final AuthenticationMode authenticationMode;
+    private final TokenEpochRegistry tokenEpochRegistry;
 
-    public JwtAuthenticationFilter(JwtService jwtService, UserDetailsService userDetailsService) {
+    // Исходы фильтра: jwt.filter.requests{outcome}
+    private final Counter missingCounter;
+    private final Counter authenticatedCounter;
+    private final Counter invalidCounter;
+    private final Counter expiredCounter;
+    private final Counter unknownUserCounter;
+    private final Counter revokedCounter;
+
+    public JwtAuthenticationFilter(JwtService jwtService,
+                                   UserDetailsService userDetailsService,
+                                   AuthenticationMode authenticationMode,
+                                   TokenEpochRegistry tokenEpochRegistry,
+                                   MeterRegistry meterRegistry) {
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
+        this.authenticationMode = authenticationMode;
+        this.tokenEpochRegistry = tokenEpochRegistry;
+        this.missingCounter = outcomeCounter(meterRegistry, "missing");
+        this.authenticatedCounter = outcomeCounter(meterRegistry, "authenticated");
+        this.invalidCounter = outcomeCounter(meterRegistry, "invalid");
+        this.expiredCounter = outcomeCounter(meterRegistry, "expired");
+        this.unknownUserCounter = outcomeCounter(meterRegistry, "unknown_user");
+        this.revokedCounter = outcomeCounter(meterRegistry, "revoked");
     }
 
     @Override
@@ -45,34 +72,71 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         final String authHeader = request.getHeader(Constant.AUTH_HEADER);
 
         if (authHeader == null || !authHeader.startsWith(Constant.BEARER_PREFIX)) {
+            missingCounter.increment();
             filterChain.doFilter(request, response);
             return;
         }
 
-        final String jwt = authHeader.substring(Constant.BEARER_PREFIX.length());
+        final String jwt = authHeader.substring(Constant.BEARER_PREFIX.length()).trim();
 
         try {
-            final String username = jwtService.extractUsername(jwt);
+            // Токен разбирается и верифицируется один раз на запрос
+            final JwtPrincipal principal = jwtService.parseToken(jwt);
+            final String username = principal.subject();
+
+            // Токен выпущен до logoutAll: проверка по таблице эпох в памяти, без БД
+            if (tokenEpochRegistry.isRevoked(principal)) {
+                revokedCounter.increment();
+                log.warn("Revoked JWT token for user: {}", principal.userId());
+                response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Token revoked");
+                return;
+            }
 
             if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                UserDetails userDetails = authenticationMode == AuthenticationMode.STATELESS
+                        ? toUserDetails(principal)
+                        : userDetailsService.loadUserByUsername(username);
 
-                if (jwtService.isTokenValidForUser(jwt, userDetails)) {
+                if (username.equals(userDetails.getUsername())) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails, null, userDetails.getAuthorities()
                     );
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authToken);
+                    authenticatedCounter.increment();
                 }
             }
         } catch (UsernameNotFoundException e) {
+            unknownUserCounter.increment();
             log.warn("User not found: {}", e.getMessage());
             response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "User not found");
-        } catch (JwtException e) {
+            return;
+        } catch (ExpiredJwtException e) {
+            expiredCounter.increment();
+            log.warn("Expired JWT token: {}", e.getMessage());
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid JWT token");
+            return;
+        } catch (JwtException | IllegalArgumentException e) {
+            invalidCounter.increment();
             log.warn("Invalid JWT token: {}", e.getMessage());
             response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid JWT token");
+            return;
         }
 
         filterChain.doFilter(request, response);
     }
+
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("jwt.filter.requests")
+                .description("Outcomes of bearer token authentication")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Строит UserDetails только из проверенных claims токена, без обращения к БД
+     */
+    private static UserDetails toUserDetails(JwtPrincipal principal) {
+        return new User(principal.subject(), "", GrantedAuthorities.of(principal.authorities()));
+    }
 }
@@ -0,0 +1,229 @@
+package com.ecommerce.platform.authservice.security;
+
+import com.ecommerce.platform.authservice.config.JwtConfig;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.PublicJwk;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Набор ключей подписи JWT, идентифицируемых по kid.
+ * <p>
+ * Ключи читаются из каталога {@code jwt.signing.keys-location}: {@code <kid>.key} (PKCS#8 PEM)
+ * и {@code <kid>.pub} (X.509 PEM). Ключ, у которого есть только {@code .pub}, используется
+ * только для проверки (выведенный из ротации). Каталог перечитывается по расписанию
+ * без перезапуска сервиса; состояние заменяется атомарно.
+ * <p>
+ * Без каталога сервис не стартует: временная пара ключей допускается только при
+ * {@code jwt.signing.allow-ephemeral-keys} (профиль dev), иначе экземпляры не принимали бы
+ * токены друг друга, а JWKS в gateway устаревал бы при каждом перезапуске.
+ * Токены без kid принимаются только при {@code jwt.legacy-hmac.enabled} и до {@code accept-until}.
+ */
+@Slf4j
+@Component
+public class JwtKeyRing extends LocatorAdapter<Key> {
+
+    private final JwtConfig jwtConfig;
+    private final KeyPair ephemeralKeyPair;
+    private volatile State state;
+
+    public JwtKeyRing(JwtConfig jwtConfig) {
+        this.jwtConfig = jwtConfig;
+        boolean ephemeral = isBlank(jwtConfig.getSigning().getKeysLocation());
+        if (ephemeral && !jwtConfig.getSigning().isAllowEphemeralKeys()) {
+            throw new IllegalStateException("jwt.signing.keys-location is not set. Configure signing keys "
+                    + "(JWT_KEYS_LOCATION) or use the dev profile, which allows an ephemeral key");
+        }
+        JwtConfig.LegacyHmac legacy = jwtConfig.getLegacyHmac();
+        if (legacy.isEnabled() && (isBlank(legacy.getSecret()) || legacy.getAcceptUntil() == null)) {
+            throw new IllegalStateException("jwt.legacy-hmac requires both secret and accept-until");
+        }
+        this.ephemeralKeyPair = ephemeral ? signatureAlgorithm().keyPair().build() : null;
+        reload();
+    }
+
+    /**
+     * Перечитывает ключи. При ошибке чтения продолжает работать с предыдущим набором.
+     */
+    @Scheduled(fixedDelayString = "${jwt.signing.reload-interval:60s}",
+            initialDelayString = "${jwt.signing.reload-interval:60s}")
+    public void reload() {
+        try {
+            State loaded = ephemeralKeyPair != null ? ephemeralState() : loadState();
+            State previous = this.state;
+            this.state = loaded;
+            if (previous == null || !previous.verificationKeys().keySet().equals(loaded.verificationKeys().keySet())
+                    || !previous.activeKid().equals(loaded.activeKid())) {
+                log.info("JWT key ring loaded: active kid={}, verification kids={}",
+                        loaded.activeKid(), loaded.verificationKeys().keySet());
+            }
+        } catch (RuntimeException ex) {
+            if (this.state == null) {
+                throw ex;
+            }
+            log.error("Failed to reload JWT key ring, keeping previous keys: {}", ex.getMessage());
+        }
+    }
+
+    public String activeKid() {
+        return state.activeKid();
+    }
+
+    public PrivateKey signingKey() {
+        return state.signingKey();
+    }
+
+    public SignatureAlgorithm signatureAlgorithm() {
+        return "RS256".equalsIgnoreCase(jwtConfig.getSigning().getAlgorithm()) ? Jwts.SIG.RS256 : Jwts.SIG.EdDSA;
+    }
+
+    /**
+     * JWKS-документ с публичными ключами всех kid, пригодных для проверки
+     */
+    public String jwksJson() {
+        return state.jwksJson();
+    }
+
+    @Override
+    protected Key locate(JwsHeader header) {
+        State current = state;
+        String kid = header.getKeyId();
+        if (kid == null) {
+            if (current.legacyKey() == null
+                    || Instant.now().isAfter(jwtConfig.getLegacyHmac().getAcceptUntil())) {
+                throw new UnsupportedJwtException("Token has no key id");
+            }
+            return current.legacyKey();
+        }
+        PublicKey key = current.verificationKeys().get(kid);
+        if (key == null) {
+            throw new UnsupportedJwtException("Unknown key id: " + kid);
+        }
+        return key;
+    }
+
+    private State ephemeralState() {
+        if (state != null) {
+            return state;
+        }
+        String kid = "ephemeral-" + UUID.randomUUID().toString().substring(0, 8);
+        log.warn("jwt.signing.keys-location is not set, signing with ephemeral key {}. "
+                + "Tokens will not survive a restart and cannot be verified by other instances", kid);
+        return newState(kid, ephemeralKeyPair.getPrivate(), Map.of(kid, ephemeralKeyPair.getPublic()));
+    }
+
+    private State loadState() {
+        Path directory = Path.of(jwtConfig.getSigning().getKeysLocation());
+        Map<String, PublicKey> publicKeys = new TreeMap<>();
+        TreeMap<String, PrivateKey> privateKeys = new TreeMap<>();
+        String keyAlgorithm = signatureAlgorithm() == Jwts.SIG.RS256 ? "RSA" : "EdDSA";
+
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(".pub")) {
+                    publicKeys.put(kidOf(name), publicKey(readPem(file), keyAlgorithm));
+                } else if (name.endsWith(".key")) {
+                    privateKeys.put(kidOf(name), privateKey(readPem(file), keyAlgorithm));
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot read JWT keys from " + directory, ex);
+        }
+
+        String activeKid = jwtConfig.getSigning().getActiveKid();
+        if (isBlank(activeKid)) {
+            activeKid = privateKeys.isEmpty() ? null : privateKeys.lastKey();
+        }
+        if (activeKid == null || !privateKeys.containsKey(activeKid) || !publicKeys.containsKey(activeKid)) {
+            throw new IllegalStateException("No key pair for active kid " + activeKid + " in " + directory);
+        }
+        return newState(activeKid, privateKeys.get(activeKid), publicKeys);
+    }
+
+    private State newState(String activeKid, PrivateKey signingKey, Map<String, PublicKey> verificationKeys) {
+        List<String> jwks = new ArrayList<>(verificationKeys.size());
+        verificationKeys.forEach((kid, key) -> {
+            PublicJwk<?> jwk = Jwks.builder().key(key)
+                    .id(kid)
+                    .algorithm(signatureAlgorithm().getId())
+                    .build();
+            jwks.add(Jwks.json(jwk));
+        });
+        String jwksJson = "{\"keys\":[" + String.join(",", jwks) + "]}";
+        return new State(activeKid, signingKey, Map.copyOf(verificationKeys), legacyKey(), jwksJson);
+    }
+
+    private SecretKey legacyKey() {
+        JwtConfig.LegacyHmac legacy = jwtConfig.getLegacyHmac();
+        return legacy.isEnabled() ? Keys.hmacShaKeyFor(Base64.getDecoder().decode(legacy.getSecret())) : null;
+    }
+
+    private static String kidOf(String fileName) {
+        return fileName.substring(0, fileName.lastIndexOf('.'));
+    }
+
+    private static byte[] readPem(Path file) throws IOException {
+        String body = Files.readString(file)
+                .replaceAll("-----(BEGIN|END) [A-Z ]+-----", "")
+                .replaceAll("\\s", "");
+        return Base64.getDecoder().decode(body);
+    }
+
+    private static PublicKey publicKey(byte[] encoded, String algorithm) {
+        try {
+            return KeyFactory.getInstance(algorithm).generatePublic(new X509EncodedKeySpec(encoded));
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("Invalid public key", ex);
+        }
+    }
+
+    private static PrivateKey privateKey(byte[] encoded, String algorithm) {
+        try {
+            return KeyFactory.getInstance(algorithm).generatePrivate(new PKCS8EncodedKeySpec(encoded));
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("Invalid private key", ex);
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private record State(
+            String activeKid,
+            PrivateKey signingKey,
+            Map<String, PublicKey> verificationKeys,
+            SecretKey legacyKey,
+            String jwksJson
+    ) {}
+}
@@ -0,0 +1,30 @@
+package com.ecommerce.platform.authservice.security;
+
+import java.time.Instant;
+import java.util.Set;
+
+/**
+ * Неизменяемый результат однократной верификации JWT токена.
+ * Подпись, issuer и срок действия уже проверены при создании.
+ *
+ * @param userId      идентификатор пользователя, может быть null у старых токенов
+ * @param subject     email пользователя
+ * @param issuer      издатель токена
+ * @param expiresAt   время истечения токена
+ * @param authorities имена ролей из токена (пустое множество, если claim отсутствует)
+ * @param tokenId     идентификатор токена (jti), может быть null у старых токенов
+ * @param tokenEpoch  эпоха токенов пользователя на момент выпуска (0, если claim отсутствует)
+ */
+public record JwtPrincipal(
+        Long userId,
+        String subject,
+        String issuer,
+        Instant expiresAt,
+        Set<String> authorities,
+        String tokenId,
+        int tokenEpoch
+) {
+    public JwtPrincipal {
+        authorities = authorities == null ? Set.of() : Set.copyOf(authorities);
+    }
+}
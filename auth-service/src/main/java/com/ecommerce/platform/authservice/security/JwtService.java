@@ -4,6 +4,8 @@ import com.ecommerce.platform.authservice.model.User;
 import io.jsonwebtoken.JwtException;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.util.Collection;
+
 public interface JwtService {
 
     /**
@@ -13,6 +15,15 @@ public interface JwtService {
      */
     String generateAccessToken(User user);
 
+    /**
+     * Генерация access токена без загрузки сущности пользователя
+     * @param userId идентификатор пользователя
+     * @param email email пользователя
+     * @param roles имена ролей пользователя
+     * @return JWT токен с коротким временем жизни
+     */
+    String generateAccessToken(Long userId, String email, Collection<String> roles);
+
     /**
      * Генерация refresh токена
      * @param user объект пользователя
@@ -20,6 +31,14 @@ public interface JwtService {
      */
     String generateRefreshToken(User user);
 
+    /**
+     * Верифицирует токен (подпись, issuer, срок действия) за один разбор
+     * @param token JWT токен
+     * @return неизменяемый principal с данными токена
+     * @throws JwtException если токен невалиден или просрочен
+     */
+    JwtPrincipal parseToken(String token) throws JwtException;
+
     /**
      * Проверяет валидность токена
      * @param token JWT токен
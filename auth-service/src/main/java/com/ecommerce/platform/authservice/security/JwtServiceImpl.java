@@ -1,36 +1,71 @@
 package com.ecommerce.platform.authservice.security;
 import com.ecommerce.platform.authservice.config.JwtConfig;
+import com.ecommerce.platform.authservice.model.Role;
 import com.ecommerce.platform.authservice.model.User;
 import io.jsonwebtoken.*;
-import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
-import javax.crypto.SecretKey;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Сервис для работы с JWT токенами:
  * - Генерация access/refresh токенов
  * - Валидация токенов
  * - Извлечение данных из токенов
+ * <p>
+ * Время подписи и проверки публикуется в таймерах jwt.sign и jwt.verify{outcome}.
  */
 
 @Service
-@RequiredArgsConstructor
 public class JwtServiceImpl implements JwtService {
 
     private static final Logger log = LoggerFactory.getLogger(JwtServiceImpl.class);
 
-    // Ключ для подписи токенов (HMAC-SHA256)
-    private final SecretKey signKey;
+    // Claim со списком ролей пользователя
+    static final String ROLES_CLAIM = "roles";
+    // Claim с идентификатором пользователя
+    static final String USER_ID_CLAIM = "uid";
+    // Claim с эпохой токенов пользователя
+    static final String EPOCH_CLAIM = "ep";
+
+    // Ключи подписи, выбираемые по kid
+    private final JwtKeyRing keyRing;
     // Время жизни access токена в миллисекундах
     private final JwtConfig jwtConfig;
     // Время жизни refresh токена в миллисекундах
     private final JwtParser jwtParser;
+    // Текущие эпохи токенов пользователей
+    private final TokenEpochRegistry tokenEpochRegistry;
+    private final Timer signTimer;
+    private final Timer verifyValidTimer;
+    private final Timer verifyExpiredTimer;
+    private final Timer verifyInvalidTimer;
+
+    public JwtServiceImpl(JwtKeyRing keyRing, JwtConfig jwtConfig, JwtParser jwtParser,
+                          TokenEpochRegistry tokenEpochRegistry, MeterRegistry meterRegistry) {
+        this.keyRing = keyRing;
+        this.jwtConfig = jwtConfig;
+        this.jwtParser = jwtParser;
+        this.tokenEpochRegistry = tokenEpochRegistry;
+        this.signTimer = Timer.builder("jwt.sign")
+                .tag("algorithm", keyRing.signatureAlgorithm().getId())
+                .register(meterRegistry);
+        this.verifyValidTimer = verifyTimer(meterRegistry, "valid");
+        this.verifyExpiredTimer = verifyTimer(meterRegistry, "expired");
+        this.verifyInvalidTimer = verifyTimer(meterRegistry, "invalid");
+    }
 
     /**
      * Генерация access токена
@@ -38,8 +73,23 @@ public class JwtServiceImpl implements JwtService {
      * @return JWT токен с коротким временем жизни
      */
     public String generateAccessToken(User user) {
-        String token = buildToken(user, jwtConfig.getAccessExpiration()); //строка где возникает ошибка
-        log.debug("Generated access token for user: {}", user.getEmail());
+        // Эпоха из только что прочитанной сущности может опережать NOTIFY от другого экземпляра
+        if (user.getId() != null) {
+            tokenEpochRegistry.advance(user.getId(), user.getTokenEpoch(), user.getTokenEpochBumpedAt());
+        }
+        return generateAccessToken(user.getId(), user.getEmail(), roleNames(user));
+    }
+
+    /**
+     * Генерация access токена без загрузки сущности пользователя
+     * @param userId идентификатор пользователя
+     * @param email email пользователя
+     * @param roles имена ролей пользователя
+     * @return JWT токен с коротким временем жизни
+     */
+    public String generateAccessToken(Long userId, String email, Collection<String> roles) {
+        String token = buildToken(userId, email, roles, jwtConfig.getAccessExpiration());
+        log.debug("Generated access token for user: {}", email);
         return token;
     }
 
@@ -49,68 +99,96 @@ public class JwtServiceImpl implements JwtService {
      * @return JWT токен с длительным временем жизни
      */
     public String generateRefreshToken(User user) {
-        String token = buildToken(user, jwtConfig.getRefreshExpiration());
+        String token = buildToken(user.getId(), user.getEmail(), roleNames(user), jwtConfig.getRefreshExpiration());
         log.debug("Generated refresh token for user: {}", user.getEmail());
         return token;
     }
 
     /**
      * Внутренний метод построения токена
-     * @param user объект пользователя
+     * @param userId идентификатор пользователя
+     * @param email email пользователя
+     * @param roles имена ролей пользователя
      * @param expiration время жизни токена в мс
      * @return подписанный JWT токен
      */
-    private String buildToken(User user, long expiration) {
-        return Jwts.builder()
+    private String buildToken(Long userId, String email, Collection<String> roles, long expiration) {
+        long start = System.nanoTime();
+        String token = Jwts.builder()
+                .header().keyId(keyRing.activeKid()).and() // kid активного ключа
                 .issuer(jwtConfig.getIssuer())
-                .subject(user.getEmail())          // Устанавливаем subject (email пользователя)
+                .id(UUID.randomUUID().toString())  // Идентификатор токена (jti)
+                .subject(email)                    // Устанавливаем subject (email пользователя)
+                .claim(USER_ID_CLAIM, userId)      // Идентификатор пользователя
+                .claim(ROLES_CLAIM, roles)         // Роли для stateless-аутентификации
+                .claim(EPOCH_CLAIM, tokenEpochRegistry.current(userId)) // Эпоха для отзыва через logoutAll
                 .issuedAt(Date.from(Instant.now())) // Время создания токена
                 .expiration(Date.from(Instant.now().plusMillis(expiration))) // Время истечения
-                .signWith(signKey)                 // Подписываем токен
+                .signWith(keyRing.signingKey(), keyRing.signatureAlgorithm()) // Подписываем токен
                 .compact();                        // Преобразуем в строку
+        signTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return token;
     }
 
     public long getAccessTokenExpirationInMillis() {
         return jwtConfig.getAccessExpiration() * 1000L;
     }
 
+    /**
+     * Верифицирует токен за один разбор: подпись, issuer и срок действия
+     * проверяются парсером, claims копируются в неизменяемый principal
+     * @param token JWT токен
+     * @return principal с данными токена
+     * @throws JwtException если токен невалиден или просрочен
+     */
+    @Override
+    public JwtPrincipal parseToken(String token) {
+        if (token == null || token.isBlank()) {
+            throw new MalformedJwtException("Token is null or blank");
+        }
+        long start = System.nanoTime();
+        Claims claims;
+        try {
+            claims = jwtParser.parseSignedClaims(token).getPayload();
+        } catch (ExpiredJwtException ex) {
+            verifyExpiredTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw ex;
+        } catch (JwtException | IllegalArgumentException ex) {
+            verifyInvalidTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw ex;
+        }
+        verifyValidTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        JwtPrincipal principal = new JwtPrincipal(
+                claims.get(USER_ID_CLAIM, Long.class),
+                claims.getSubject(),
+                claims.getIssuer(),
+                claims.getExpiration().toInstant(),
+                extractRoles(claims),
+                claims.getId(),
+                extractEpoch(claims)
+        );
+        log.trace("Parsed token for subject: {}", principal.subject());
+        return principal;
+    }
+
     /**
      * Проверяет валидность токена
      * @param token JWT токен
      * @return true если токен валиден, false если просрочен или подпись неверна
      */
     public boolean isTokenValid(String token) {
-        if(token == null || token.isBlank()){
-            log.warn("Token is null or blank");
-            return false;
-        }
-
         try {
-
-            Jws<Claims> claimsJws = jwtParser.parseSignedClaims(token);
-
-            if(claimsJws.getPayload().getExpiration().before(new Date())){
-                log.warn("Token is expired");
-                return false;
-            }
-
-            if(!claimsJws.getPayload().getIssuer().equals(jwtConfig.getIssuer())){
-                log.warn("Invalid token issuer");
-                return false;
-            }
-
+            parseToken(token);
             log.debug("Token validation successful");
-            claimsJws.getPayload().getSubject();
             return true;
-
         } catch (ExpiredJwtException ex) {
             log.warn("Token expired: {}", ex.getMessage());
             return false;
         } catch (MalformedJwtException ex) {
             log.warn("Invalid token format: {}", ex.getMessage());
             return false;
-        } catch (SecurityException ex) {
-            log.warn("Invalid signature: {}", ex.getMessage());
+        } catch (JwtException ex) {
+            log.warn("Invalid token: {}", ex.getMessage());
             return false;
         } catch (IllegalArgumentException ex) {
             log.warn("Empty or null token");
@@ -126,12 +204,7 @@ public class JwtServiceImpl implements JwtService {
      */
     public String extractUsername(String token) {
         try {
-            String username = jwtParser
-                    .parseSignedClaims(token)
-                    .getPayload()
-                    .getSubject();
-            log.trace("Extracted username from token: {}", username);
-            return username;
+            return parseToken(token).subject();
         } catch (JwtException ex) {
             log.error("Failed to extract username from token: {}", ex.getMessage());
             throw ex;
@@ -139,14 +212,42 @@ public class JwtServiceImpl implements JwtService {
     }
 
     public boolean isTokenValidForUser(String token , UserDetails userDetails) {
-        if(!isTokenValid(token)){
+        try {
+            return parseToken(token).subject().equals(userDetails.getUsername());
+        } catch (JwtException | IllegalArgumentException ex) {
+            log.warn("Token is not valid for user {}: {}", userDetails.getUsername(), ex.getMessage());
             return false;
         }
+    }
 
-        final String username = extractUsername(token);
-        return username.equals(userDetails.getUsername());
+    private static Timer verifyTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("jwt.verify")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
 
+    private static List<String> roleNames(User user) {
+        List<String> names = new ArrayList<>(user.getRoles().size());
+        for (Role role : user.getRoles()) {
+            names.add(role.getRole());
+        }
+        return names;
     }
 
+    private static int extractEpoch(Claims claims) {
+        Integer epoch = claims.get(EPOCH_CLAIM, Integer.class);
+        return epoch == null ? 0 : epoch;
+    }
 
+    private static Set<String> extractRoles(Claims claims) {
+        Object roles = claims.get(ROLES_CLAIM);
+        if (!(roles instanceof Collection<?> values)) {
+            return Set.of();
+        }
+        Set<String> result = new HashSet<>(values.size());
+        for (Object value : values) {
+            result.add(String.valueOf(value));
+        }
+        return result;
+    }
 }
@@ -0,0 +1,77 @@
+package com.ecommerce.platform.authservice.security;
+
+import com.ecommerce.platform.authservice.config.LoginThrottleConfig;
+import com.ecommerce.platform.authservice.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Ограничение частоты попыток входа по email и по IP клиента.
+ * <p>
+ * Проверяется до обращения к БД и до BCrypt, поэтому отклонённая попытка
+ * стоит несколько операций над счётчиками в памяти.
+ */
+@Slf4j
+@Component
+public class LoginAttemptLimiter {
+
+    private final boolean enabled;
+    private final SlidingWindowRateLimiter byEmail;
+    private final SlidingWindowRateLimiter byIp;
+    private final Counter rejectedByEmail;
+    private final Counter rejectedByIp;
+
+    public LoginAttemptLimiter(LoginThrottleConfig config, MeterRegistry meterRegistry) {
+        this.enabled = config.isEnabled();
+        this.byEmail = new SlidingWindowRateLimiter(config.getMaxAttemptsPerEmail(), config.getWindow(),
+                config.getMaxTrackedKeys(), config.getStripes(), System::currentTimeMillis);
+        this.byIp = new SlidingWindowRateLimiter(config.getMaxAttemptsPerIp(), config.getWindow(),
+                config.getMaxTrackedKeys(), config.getStripes(), System::currentTimeMillis);
+        this.rejectedByEmail = Counter.builder("login.throttle.rejected").tag("key", "email").register(meterRegistry);
+        this.rejectedByIp = Counter.builder("login.throttle.rejected").tag("key", "ip").register(meterRegistry);
+    }
+
+    /**
+     * Учитывает попытку входа или отклоняет её
+     *
+     * @throws TooManyRequestsException если превышен лимит по IP или по email
+     */
+    public void acquire(String email, String clientIp) {
+        if (!enabled) {
+            return;
+        }
+        long retryAfter = byIp.tryAcquire(clientIp);
+        if (retryAfter > 0) {
+            rejectedByIp.increment();
+            log.warn("Login throttled for IP: {}", clientIp);
+            throw new TooManyRequestsException("Too many login attempts", toSeconds(retryAfter));
+        }
+        retryAfter = byEmail.tryAcquire(normalize(email));
+        if (retryAfter > 0) {
+            rejectedByEmail.increment();
+            log.warn("Login throttled for email: {}", email);
+            throw new TooManyRequestsException("Too many login attempts", toSeconds(retryAfter));
+        }
+    }
+
+    /**
+     * Успешный вход сбрасывает счётчик email, чтобы владелец не блокировал себя повторными входами
+     */
+    public void onSuccess(String email) {
+        if (enabled) {
+            byEmail.reset(normalize(email));
+        }
+    }
+
+    private static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static long toSeconds(long millis) {
+        return Math.max(1, (millis + 999) / 1000);
+    }
+}
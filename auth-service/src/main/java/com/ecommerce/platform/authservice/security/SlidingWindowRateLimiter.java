@@ -0,0 +1,133 @@
+package com.ecommerce.platform.authservice.security;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Ограничитель частоты по ключу со скользящим окном.
+ * <p>
+ * Окно аппроксимируется двумя соседними фиксированными окнами: счётчик предыдущего
+ * окна учитывается с весом, равным доле его перекрытия со скользящим окном.
+ * На ключ хранятся два числа, поэтому память не зависит от количества попыток.
+ * <p>
+ * Ключи распределены по сегментам, каждый со своей блокировкой и LRU-ограничением
+ * размера. Используется {@link ReentrantLock}, а не {@code synchronized},
+ * чтобы не закреплять виртуальные потоки за несущими.
+ */
+public class SlidingWindowRateLimiter {
+
+    private final int limit;
+    private final long windowMillis;
+    private final LongSupplier clock;
+    private final Stripe[] stripes;
+
+    public SlidingWindowRateLimiter(int limit, Duration window, int maxKeys, int stripeCount, LongSupplier clock) {
+        if (limit <= 0 || window.isZero() || window.isNegative() || stripeCount <= 0) {
+            throw new IllegalArgumentException("Invalid rate limiter settings");
+        }
+        this.limit = limit;
+        this.windowMillis = window.toMillis();
+        this.clock = clock;
+        this.stripes = new Stripe[stripeCount];
+        int maxKeysPerStripe = Math.max(1, maxKeys / stripeCount);
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(maxKeysPerStripe);
+        }
+    }
+
+    /**
+     * Учитывает попытку, если лимит не превышен.
+     *
+     * @return 0, если попытка разрешена, иначе время в миллисекундах до следующей разрешённой попытки
+     */
+    public long tryAcquire(String key) {
+        long now = clock.getAsLong();
+        long windowStart = now - Math.floorMod(now, windowMillis);
+        Stripe stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            Window window = stripe.windows.get(key);
+            if (window == null) {
+                window = new Window(windowStart);
+                stripe.windows.put(key, window);
+            }
+            window.roll(windowStart, windowMillis);
+            double previousWeight = 1.0 - (double) (now - windowStart) / windowMillis;
+            double estimate = window.previousCount * previousWeight + window.currentCount;
+            if (estimate + 1 > limit) {
+                return retryAfterMillis(window, now, windowStart);
+            }
+            window.currentCount++;
+            return 0;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    public void reset(String key) {
+        Stripe stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            stripe.windows.remove(key);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * Время, через которое вес предыдущего окна опустится достаточно для ещё одной попытки,
+     * либо до конца текущего окна, если лимит исчерпан в нём самом
+     */
+    private long retryAfterMillis(Window window, long now, long windowStart) {
+        long untilWindowEnd = windowStart + windowMillis - now;
+        if (window.currentCount + 1 > limit || window.previousCount == 0) {
+            return Math.max(1, untilWindowEnd);
+        }
+        // вес предыдущего окна должен опуститься до (limit - 1 - current) / previous
+        long at = windowStart + windowMillis
+                - windowMillis * (limit - 1 - window.currentCount) / window.previousCount;
+        return Math.max(1, Math.min(at - now, untilWindowEnd));
+    }
+
+    private Stripe stripeFor(String key) {
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        return stripes[Math.floorMod(hash, stripes.length)];
+    }
+
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<String, Window> windows;
+
+        private Stripe(int maxKeys) {
+            this.windows = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Window> eldest) {
+                    return size() > maxKeys;
+                }
+            };
+        }
+    }
+
+    private static final class Window {
+        private long start;
+        private int previousCount;
+        private int currentCount;
+
+        private Window(long start) {
+            this.start = start;
+        }
+
+        private void roll(long windowStart, long windowMillis) {
+            if (start == windowStart) {
+                return;
+            }
+            previousCount = windowStart - start == windowMillis ? currentCount : 0;
+            currentCount = 0;
+            start = windowStart;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.ecommerce.platform.authservice.security;
+
+import com.ecommerce.platform.authservice.config.JwtConfig;
+import com.ecommerce.platform.authservice.config.TokenEpochConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+
+/**
+ * Распространяет эпохи токенов между экземплярами сервиса через Postgres LISTEN/NOTIFY.
+ * <p>
+ * Слушатель держит отдельное соединение с основной БД (не из пула). После каждого
+ * подключения он сначала подписывается на канал, затем загружает эпохи, поднятые не раньше
+ * чем {@code jwt.access-expiration} назад: так изменения, сделанные пока соединения не было,
+ * не теряются, а давно устаревшие эпохи не занимают память. NOTIFY отправляется
+ * в транзакции, поднимающей эпоху, и доставляется только после её фиксации.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "token-epoch", name = "listen-enabled", havingValue = "true", matchIfMissing = true)
+public class TokenEpochListener implements SmartLifecycle {
+
+    private static final int POLL_TIMEOUT_MS = 1_000;
+
+    private final DataSourceProperties dataSourceProperties;
+    private final TokenEpochConfig config;
+    private final TokenEpochRegistry registry;
+    private final JwtConfig jwtConfig;
+    private volatile boolean running;
+    private Thread thread;
+
+    public TokenEpochListener(DataSourceProperties dataSourceProperties,
+                              TokenEpochConfig config,
+                              TokenEpochRegistry registry,
+                              JwtConfig jwtConfig) {
+        this.dataSourceProperties = dataSourceProperties;
+        this.config = config;
+        this.registry = registry;
+        this.jwtConfig = jwtConfig;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        thread = Thread.ofPlatform().name("token-epoch-listener").daemon().start(this::listen);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(
+                    dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(),
+                    dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN \"" + config.getChannel() + "\"");
+                }
+                log.info("Listening for token epoch changes on channel {}, loaded {} epochs",
+                        config.getChannel(), load(connection));
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            apply(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException ex) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Token epoch listener disconnected, retrying in {}: {}", config.getReconnectDelay(), ex.getMessage());
+                try {
+                    Thread.sleep(config.getReconnectDelay());
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private int load(Connection connection) throws SQLException {
+        int loaded = 0;
+        try (PreparedStatement statement = connection.prepareStatement("""
+                SELECT id, token_epoch, token_epoch_bumped_at FROM users
+                WHERE token_epoch > 0 AND (token_epoch_bumped_at IS NULL OR token_epoch_bumped_at > ?)""")) {
+            statement.setTimestamp(1, Timestamp.from(Instant.now().minusMillis(jwtConfig.getAccessExpiration())));
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    Timestamp bumpedAt = rs.getTimestamp(3);
+                    registry.advance(rs.getLong(1), rs.getInt(2), bumpedAt != null ? bumpedAt.toInstant() : null);
+                    loaded++;
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Формат сообщения: {@code <userId>:<epoch>:<время повышения, мс>}; сообщения без времени
+     * от экземпляров прежней версии считаются только что отправленными
+     */
+    private void apply(String payload) {
+        int separator = payload.indexOf(':');
+        int timeSeparator = payload.indexOf(':', separator + 1);
+        try {
+            int epochEnd = timeSeparator < 0 ? payload.length() : timeSeparator;
+            Instant bumpedAt = timeSeparator < 0 ? null
+                    : Instant.ofEpochMilli(Long.parseLong(payload, timeSeparator + 1, payload.length(), 10));
+            registry.advance(Long.parseLong(payload, 0, separator, 10),
+                    Integer.parseInt(payload, separator + 1, epochEnd, 10), bumpedAt);
+        } catch (RuntimeException ex) {
+            log.warn("Ignoring malformed token epoch notification: {}", payload);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.ecommerce.platform.authservice.security;
+
+import com.ecommerce.platform.authservice.config.JwtConfig;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Таблица эпох токенов в памяти: userId -> текущая эпоха и время её повышения.
+ * <p>
+ * Хранятся только пользователи, выполнявшие logoutAll не раньше чем
+ * {@code jwt.access-expiration} назад: все access-токены, выпущенные до более старого
+ * повышения, уже истекли, и эпоха больше ничего не отзывает. Для остальных эпоха равна 0.
+ * Проверка access-токена — одно чтение из ConcurrentHashMap без обращения к БД. Эпохи только
+ * растут, поэтому обновления из разных источников (своя транзакция, NOTIFY, загрузка при
+ * старте) сливаются по максимуму и могут приходить в любом порядке.
+ * <p>
+ * Устаревшие записи перестают отзывать токены сразу, а удаляются с запасом
+ * {@link #CLOCK_SKEW_MARGIN}: после удаления экземпляр выпускает токены с эпохой 0,
+ * и другой экземпляр с отстающими часами не должен успеть их отклонить.
+ */
+@Component
+public class TokenEpochRegistry {
+
+    static final Duration CLOCK_SKEW_MARGIN = Duration.ofMinutes(1);
+
+    private final ConcurrentMap<Long, Epoch> epochs = new ConcurrentHashMap<>();
+    private final JwtConfig jwtConfig;
+
+    public TokenEpochRegistry(JwtConfig jwtConfig) {
+        this.jwtConfig = jwtConfig;
+    }
+
+    /**
+     * @param userId идентификатор пользователя, может быть null у старых токенов
+     * @return текущая эпоха пользователя
+     */
+    public int current(Long userId) {
+        if (userId == null) {
+            return 0;
+        }
+        Epoch epoch = epochs.get(userId);
+        return epoch == null ? 0 : epoch.value();
+    }
+
+    /**
+     * Поднимает эпоху пользователя, если она больше известной
+     * @param bumpedAt когда эпоха была поднята; null — неизвестно, считается текущим моментом
+     */
+    public void advance(long userId, int epoch, Instant bumpedAt) {
+        if (epoch <= 0) {
+            return;
+        }
+        long bumpedAtMillis = bumpedAt != null ? bumpedAt.toEpochMilli() : System.currentTimeMillis();
+        if (System.currentTimeMillis() - bumpedAtMillis > jwtConfig.getAccessExpiration()) {
+            return;
+        }
+        epochs.merge(userId, new Epoch(epoch, bumpedAtMillis), Epoch::max);
+    }
+
+    /**
+     * Токен отозван, если выпущен в эпоху раньше текущей, а она поднята не раньше чем
+     * {@code jwt.access-expiration} назад. Токены без идентификатора пользователя не проверяются
+     */
+    public boolean isRevoked(JwtPrincipal principal) {
+        if (principal.userId() == null) {
+            return false;
+        }
+        Epoch epoch = epochs.get(principal.userId());
+        return epoch != null
+                && principal.tokenEpoch() < epoch.value()
+                && System.currentTimeMillis() - epoch.bumpedAtMillis() <= jwtConfig.getAccessExpiration();
+    }
+
+    /**
+     * Удаляет эпохи, поднятые раньше чем {@code jwt.access-expiration} плюс запас назад
+     * @return число удалённых
+     */
+    @Scheduled(fixedDelayString = "${token-epoch.eviction-interval:1m}")
+    public int evictExpired() {
+        long cutoff = System.currentTimeMillis() - jwtConfig.getAccessExpiration() - CLOCK_SKEW_MARGIN.toMillis();
+        int before = epochs.size();
+        epochs.values().removeIf(epoch -> epoch.bumpedAtMillis() < cutoff);
+        return before - epochs.size();
+    }
+
+    public int size() {
+        return epochs.size();
+    }
+
+    private record Epoch(int value, long bumpedAtMillis) {
+
+        static Epoch max(Epoch a, Epoch b) {
+            if (a.value != b.value) {
+                return a.value > b.value ? a : b;
+            }
+            return a.bumpedAtMillis >= b.bumpedAtMillis ? a : b;
+        }
+    }
+}
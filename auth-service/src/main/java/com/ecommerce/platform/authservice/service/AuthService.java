@@ -19,8 +19,7 @@ public interface AuthService {
      *
      * @param request DTO с email и паролем
      * @return AuthResponseDto с access/refresh токенами
-     * @throws BadCredentialsException если неверные учетные данные
-     * @throws UserNotFoundException если пользователь не существует
+     * @throws BadCredentialsException если пользователь не существует или пароль неверен
      */
     AuthResponseDto authenticate(AuthRequestDto request);
 
@@ -42,7 +41,8 @@ public interface AuthService {
     void logout(String refreshToken);
 
     /**
-     * Инвалидирует ВСЕ активные сеансы пользователя.
+     * Инвалидирует ВСЕ активные сеансы пользователя: удаляет refresh-токены
+     * и поднимает эпоху токенов, отзывая уже выданные access-токены.
      *
      * @param userId ID пользователя
      * @throws UserNotFoundException если пользователь не существует
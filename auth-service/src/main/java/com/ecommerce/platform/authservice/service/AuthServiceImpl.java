@@ -3,67 +3,121 @@ package com.ecommerce.platform.authservice.service;
 import com.ecommerce.platform.authservice.dto.RefreshTokenRequest;
 import com.ecommerce.platform.authservice.exception.InvalidTokenException;
 import com.ecommerce.platform.authservice.exception.UserNotFoundException;
-import com.ecommerce.platform.authservice.model.RefreshToken;
 import com.ecommerce.platform.authservice.model.User;
 import com.ecommerce.platform.authservice.security.JwtService;
 import dto.AuthRequestDto;
 import dto.AuthResponseDto;
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static com.ecommerce.platform.authservice.service.AuthStageMetrics.LOGIN;
+import static com.ecommerce.platform.authservice.service.AuthStageMetrics.LOGOUT;
+import static com.ecommerce.platform.authservice.service.AuthStageMetrics.REFRESH;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class AuthServiceImpl implements AuthService {
+    private static final String INVALID_CREDENTIALS = "Invalid email or password";
+
     private final UserService userService;
     private final RefreshTokenService refreshTokenService;
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
+    private final UserPrincipalCache userPrincipalCache;
+    private final AuthStageMetrics metrics;
+    private final TransactionTemplate transactionTemplate;
+    private volatile String dummyPasswordHash;
 
+    /**
+     * Пароль сверяется и при необходимости пересчитывается вне транзакции: хэширование
+     * с ожиданием очереди занимает до {@code password-hashing.timeout}, и всё это время
+     * соединение из пула было бы занято. Транзакция охватывает только сохранение нового хэша
+     * и выдачу refresh-токена, access-токен подписывается после неё
+     */
     @Override
-    @Transactional
     public AuthResponseDto authenticate(AuthRequestDto request) {
         log.info("Authentication attempt for email: {}", request.email());
 
-        User user = userService.getUserByEmail(request.email()).get();
+        // Пароль сверяется с закэшированным хэшем: неудачные попытки не обращаются к БД.
+        // Для неизвестного email пароль сверяется с фиктивным хэшем, а ошибка та же, что при
+        // неверном пароле: ни статус, ни время ответа не выдают, есть ли такой пользователь
+        Optional<CachedUser> principal = metrics.record(LOGIN, "lookup", () -> userService.findPrincipal(request.email()));
+        String passwordHash = principal.map(CachedUser::passwordHash).orElseGet(this::dummyPasswordHash);
 
-        if(!passwordEncoder.matches(request.password(), user.getPassword())) {
-            throw new BadCredentialsException("Invalid password");
+        boolean matches = metrics.record(LOGIN, "password",
+                () -> passwordEncoder.matches(request.password(), passwordHash));
+        if (!matches || principal.isEmpty()) {
+            throw new BadCredentialsException(INVALID_CREDENTIALS);
         }
-        String accessToken = jwtService.generateAccessToken(user);
-        String refreshToken = refreshTokenService.createRefreshToken(user).getToken();
+
+        // Хэш устаревшего алгоритма или стоимости пересчитывается, пока известен пароль
+        String upgradedHash = passwordEncoder.upgradeEncoding(passwordHash)
+                ? metrics.record(LOGIN, "rehash", () -> passwordEncoder.encode(request.password()))
+                : null;
+
+        AuthenticatedLogin login = transactionTemplate.execute(status -> {
+            User user = metrics.record(LOGIN, "load_user", () -> userService.getUserByEmail(request.email()))
+                    .orElseThrow(() -> new BadCredentialsException(INVALID_CREDENTIALS));
+            if (upgradedHash != null) {
+                user.setPassword(upgradedHash);
+                log.info("Password hash upgraded for user: {}", user.getId());
+            }
+            // Роли нужны access-токену, который подписывается уже после транзакции
+            Hibernate.initialize(user.getRoles());
+            String refreshToken = metrics.record(LOGIN, "refresh_token",
+                    () -> refreshTokenService.createRefreshToken(user).getToken());
+            return new AuthenticatedLogin(user, refreshToken);
+        });
+        String accessToken = metrics.record(LOGIN, "access_token", () -> jwtService.generateAccessToken(login.user()));
 
         return new AuthResponseDto(
                 accessToken,
-                refreshToken,
+                login.refreshToken(),
                 jwtService.getAccessTokenExpirationInMillis()
         );
     }
 
+    /**
+     * Хэш случайного пароля текущим алгоритмом и стоимостью: проверка по нему занимает
+     * столько же, сколько по хэшу настоящего пользователя
+     */
+    private String dummyPasswordHash() {
+        String hash = dummyPasswordHash;
+        if (hash == null) {
+            hash = passwordEncoder.encode(UUID.randomUUID().toString());
+            dummyPasswordHash = hash;
+        }
+        return hash;
+    }
+
     @Override
     public AuthResponseDto refreshToken(RefreshTokenRequest request) {
-        log.debug("Refreshing token with refresh token: {}", request.refreshToken());
+        log.debug("Refreshing token");
 
-        RefreshToken refreshToken = refreshTokenService.findByToken(request.refreshToken())
-                .orElseThrow(() -> new InvalidTokenException("Invalid refresh token"));
+        // Один запрос к БД: старый токен погашен, новый выдан
+        RotatedRefreshToken rotated = metrics.record(REFRESH, "rotate",
+                () -> refreshTokenService.rotate(request.refreshToken()));
 
-        refreshTokenService.verifyExpiration(refreshToken);
-
-        User user = userService.getUserById(refreshToken.getUser().getId())
+        CachedUser principal = metrics.record(REFRESH, "lookup", () -> userService.findPrincipal(rotated.email()))
                 .orElseThrow(() -> new UserNotFoundException("User not found"));
 
-        String newAccessToken = jwtService.generateAccessToken(user);
-        RefreshToken newRefreshToken = refreshTokenService.createRefreshToken(user);
+        String newAccessToken = metrics.record(REFRESH, "access_token",
+                () -> jwtService.generateAccessToken(principal.id(), principal.email(), principal.roleNames()));
 
-        log.info("Tokens refreshed for user: {}", user.getEmail());
+        log.info("Tokens refreshed for user: {}", rotated.userId());
 
         return new AuthResponseDto(
                 newAccessToken,
-                newRefreshToken.getToken(),
+                rotated.token(),
                 jwtService.getAccessTokenExpirationInMillis()
         );
     }
@@ -71,10 +125,10 @@ public class AuthServiceImpl implements AuthService {
     @Override
     public void logout(String refreshToken) {
         log.debug("Logout attempt with refresh token");
-        refreshTokenService.findByToken(refreshToken)
+        metrics.record(LOGOUT, "lookup", () -> refreshTokenService.findByToken(refreshToken))
                 .ifPresentOrElse(
                         token -> {
-                            refreshTokenService.invalidate(token);
+                            metrics.record(LOGOUT, "revoke", () -> refreshTokenService.invalidate(token));
                             log.info("User {} logged out", token.getUser().getEmail());
                         },
                         () -> log.warn("Invalid refresh token provided for logout")
@@ -86,6 +140,11 @@ public class AuthServiceImpl implements AuthService {
         log.info("Logging out all sessions for user ID: {}", userId);
         User user = userService.getUserById(userId)
                 .orElseThrow(() -> new UserNotFoundException("User not found"));
+        // Сначала отзываются access-токены: после этого refresh уже не выпустит токен старой эпохи
+        userService.bumpTokenEpoch(userId);
         refreshTokenService.deleteAllByUser(user);
+        userPrincipalCache.evict(user.getEmail());
     }
+
+    private record AuthenticatedLogin(User user, String refreshToken) {}
 }
@@ -0,0 +1,45 @@
+package com.ecommerce.platform.authservice.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Таймеры этапов login/refresh/logout: {@code auth.stage{operation, stage}}.
+ * Набор тегов фиксирован в коде, поэтому кардинальность ограничена.
+ * Время записывается и при исключении, чтобы медленные отказы были видны.
+ */
+@Component
+public class AuthStageMetrics {
+
+    static final String LOGIN = "login";
+    static final String REFRESH = "refresh";
+    static final String LOGOUT = "logout";
+
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public AuthStageMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> T record(String operation, String stage, Supplier<T> action) {
+        return timer(operation, stage).record(action);
+    }
+
+    public void record(String operation, String stage, Runnable action) {
+        timer(operation, stage).record(action);
+    }
+
+    private Timer timer(String operation, String stage) {
+        return timers.computeIfAbsent(operation + '.' + stage, key -> Timer.builder("auth.stage")
+                .description("Duration of a single authentication stage")
+                .tag("operation", operation)
+                .tag("stage", stage)
+                .register(meterRegistry));
+    }
+}
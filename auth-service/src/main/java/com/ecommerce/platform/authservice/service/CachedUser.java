@@ -0,0 +1,44 @@
+package com.ecommerce.platform.authservice.service;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Неизменяемый снимок пользователя для кэша принципалов.
+ * Spring {@link User} не кэшируется напрямую: ProviderManager
+ * обнуляет пароль в нём после аутентификации.
+ *
+ * @param id           идентификатор пользователя
+ * @param email        email пользователя
+ * @param passwordHash хэш пароля
+ * @param authorities  неизменяемый набор ролей
+ */
+public record CachedUser(
+        Long id,
+        String email,
+        String passwordHash,
+        Set<GrantedAuthority> authorities
+) {
+    public CachedUser {
+        authorities = Set.copyOf(authorities);
+    }
+
+    public List<String> roleNames() {
+        List<String> names = new ArrayList<>(authorities.size());
+        for (GrantedAuthority authority : authorities) {
+            names.add(authority.getAuthority());
+        }
+        return names;
+    }
+
+    /**
+     * Создаёт новый экземпляр UserDetails на каждый вызов
+     */
+    public User toUserDetails() {
+        return new User(email, passwordHash, authorities);
+    }
+}
@@ -21,6 +21,16 @@ public interface RefreshTokenService {
      */
     RefreshToken createRefreshToken(User user);
 
+    /**
+     * Атомарно заменяет refresh-токен новым одним запросом к БД.
+     * Повторное предъявление уже заменённого токена отзывает всю сессию.
+     *
+     * @param token текущее значение refresh-токена
+     * @return новый токен и его владелец
+     * @throws InvalidTokenException если токен не найден, истёк или уже был использован
+     */
+    RotatedRefreshToken rotate(String token);
+
     /**
      * Проверяет валидность refresh-токена.
      *
@@ -58,4 +68,12 @@ public interface RefreshTokenService {
     void invalidate(RefreshToken token);
 
     void deleteAllExpired();
+
+    /**
+     * Удаляет одну порцию истёкших токенов в отдельной транзакции.
+     *
+     * @param batchSize максимальный размер порции
+     * @return количество удалённых токенов
+     */
+    int deleteExpiredBatch(int batchSize);
 }
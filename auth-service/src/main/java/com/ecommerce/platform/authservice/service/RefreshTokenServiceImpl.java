@@ -3,9 +3,14 @@ package com.ecommerce.platform.authservice.service;
 import com.ecommerce.platform.authservice.exception.InvalidTokenException;
 import com.ecommerce.platform.authservice.model.RefreshToken;
 import com.ecommerce.platform.authservice.model.User;
+import com.ecommerce.platform.authservice.outbox.OutboxEventType;
+import com.ecommerce.platform.authservice.outbox.OutboxWriter;
+import com.ecommerce.platform.authservice.repository.RefreshTokenOwner;
 import com.ecommerce.platform.authservice.repository.RefreshTokenRepository;
 import com.ecommerce.platform.authservice.repository.UserRepository;
+import com.ecommerce.platform.authservice.security.JwtPrincipal;
 import com.ecommerce.platform.authservice.security.JwtService;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -13,6 +18,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -23,6 +29,7 @@ public class RefreshTokenServiceImpl implements RefreshTokenService {
 
     private final RefreshTokenRepository refreshTokenRepository;
     private final JwtService jwtService;
+    private final OutboxWriter outboxWriter;
 
     @Value("${jwt.refresh-expiration}")
     private long refreshTokenDurationMs;
@@ -31,6 +38,7 @@ public class RefreshTokenServiceImpl implements RefreshTokenService {
      * Создает новый refresh-токен для пользователя
      */
     @Override
+    @Transactional
     public RefreshToken createRefreshToken(User user) {
         if (user == null) {
             throw new IllegalArgumentException("User cannot be null");
@@ -42,21 +50,53 @@ public class RefreshTokenServiceImpl implements RefreshTokenService {
         );
 
         RefreshToken savedToken = refreshTokenRepository.save(refreshToken);
+        outboxWriter.append(OutboxEventType.USER_LOGGED_IN, user.getId(), Map.of("email", user.getEmail()));
         log.info("Refresh token created for user: {}", user.getId());
         return savedToken;
     }
 
+    @Override
+    @Transactional(noRollbackFor = InvalidTokenException.class)
+    public RotatedRefreshToken rotate(String token) {
+        String newToken = UUID.randomUUID().toString();
+        Instant newExpiry = Instant.now().plusMillis(refreshTokenDurationMs);
+
+        Optional<RefreshTokenOwner> owner = refreshTokenRepository.rotate(token, newToken, newExpiry);
+        if (owner.isPresent()) {
+            outboxWriter.append(OutboxEventType.TOKEN_REFRESHED, owner.get().getUserId(), Map.of());
+            log.debug("Refresh token rotated for user: {}", owner.get().getUserId());
+            return new RotatedRefreshToken(newToken, newExpiry, owner.get().getUserId(), owner.get().getEmail());
+        }
+
+        // Дальше только неуспешная ротация: различаем повторное использование, истечение и мусор
+        Optional<RefreshToken> reused = refreshTokenRepository.findByPreviousToken(token);
+        if (reused.isPresent()) {
+            refreshTokenRepository.delete(reused.get());
+            outboxWriter.append(OutboxEventType.REFRESH_TOKEN_REUSED, reused.get().getUser().getId(), Map.of());
+            log.warn("Refresh token reuse detected, session revoked for user: {}", reused.get().getUser().getId());
+            throw new InvalidTokenException("Refresh token was already used");
+        }
+        Optional<RefreshToken> expired = refreshTokenRepository.findByToken(token);
+        if (expired.isPresent()) {
+            refreshTokenRepository.delete(expired.get());
+            throw new InvalidTokenException("Refresh token was expired");
+        }
+        throw new InvalidTokenException("Invalid refresh token");
+    }
+
     @Override
     public boolean validateToken(String token) {
         if (token == null || token.isBlank()) {
             throw new IllegalArgumentException("Token cannot be null or empty");
         }
-        boolean isValid = jwtService.isTokenValid(token);
-
-        if (isValid) {
-            log.info("Token is valid: {}", token);
-        } else {
-            log.warn("Token is invalid: {}", token);
+        boolean isValid;
+        try {
+            JwtPrincipal principal = jwtService.parseToken(token);
+            log.info("Token is valid for subject: {}", principal.subject());
+            isValid = true;
+        } catch (JwtException ex) {
+            log.warn("Token is invalid: {}", ex.getMessage());
+            isValid = false;
         }
         return isValid;
     }
@@ -71,6 +111,7 @@ public class RefreshTokenServiceImpl implements RefreshTokenService {
     @Transactional
     public void deleteAllByUser(User user) {
         refreshTokenRepository.deleteAllByUser(user);
+        outboxWriter.append(OutboxEventType.ALL_SESSIONS_REVOKED, user.getId(), Map.of());
     }
 
     @Override
@@ -86,6 +127,7 @@ public class RefreshTokenServiceImpl implements RefreshTokenService {
     @Transactional
     public void invalidate(RefreshToken token) {
         refreshTokenRepository.delete(token);
+        outboxWriter.append(OutboxEventType.USER_LOGGED_OUT, token.getUser().getId(), Map.of());
         log.debug("Refresh token deleted: {}", token.getToken());
     }
 
@@ -95,5 +137,11 @@ public class RefreshTokenServiceImpl implements RefreshTokenService {
         refreshTokenRepository.deleteAllExpired();
     }
 
+    @Override
+    @Transactional
+    public int deleteExpiredBatch(int batchSize) {
+        return refreshTokenRepository.deleteExpiredBatch(batchSize);
+    }
+
 
 }
@@ -0,0 +1,18 @@
+package com.ecommerce.platform.authservice.service;
+
+import java.time.Instant;
+
+/**
+ * Результат ротации refresh-токена
+ *
+ * @param token      новое значение токена
+ * @param expiryDate срок действия нового токена
+ * @param userId     идентификатор владельца
+ * @param email      email владельца
+ */
+public record RotatedRefreshToken(
+        String token,
+        Instant expiryDate,
+        Long userId,
+        String email
+) {}
@@ -0,0 +1,39 @@
+package com.ecommerce.platform.authservice.service;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Результат проверки токена для других сервисов
+ *
+ * @param active    токен действителен
+ * @param tokenType access | refresh
+ * @param reason    причина недействительности, null для действительного токена
+ * @param subject   email пользователя
+ * @param userId    идентификатор пользователя
+ * @param roles     роли (только для access-токена)
+ * @param expiresAt время истечения
+ * @param tokenId   jti access-токена
+ */
+public record TokenIntrospection(
+        boolean active,
+        TokenType tokenType,
+        InactiveReason reason,
+        String subject,
+        Long userId,
+        List<String> roles,
+        Instant expiresAt,
+        String tokenId
+) {
+    public enum TokenType { ACCESS, REFRESH }
+
+    public enum InactiveReason { EXPIRED, INVALID, REVOKED }
+
+    public TokenIntrospection {
+        roles = roles == null ? List.of() : List.copyOf(roles);
+    }
+
+    static TokenIntrospection inactive(TokenType tokenType, InactiveReason reason) {
+        return new TokenIntrospection(false, tokenType, reason, null, null, List.of(), null, null);
+    }
+}
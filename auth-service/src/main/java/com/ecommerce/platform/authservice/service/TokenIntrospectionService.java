@@ -0,0 +1,23 @@
+package com.ecommerce.platform.authservice.service;
+
+import java.util.List;
+
+public interface TokenIntrospectionService {
+
+    /**
+     * Проверяет токен. Access-токен проверяется по подписи, сроку и эпохе без обращения к БД,
+     * refresh-токен — по хранилищу refresh-токенов
+     * @param token     значение токена
+     * @param tokenType тип токена или null, чтобы определить его по формату
+     * @return результат проверки; исключения для недействительных токенов не выбрасываются
+     */
+    TokenIntrospection introspect(String token, TokenIntrospection.TokenType tokenType);
+
+    /**
+     * Проверяет несколько токенов; refresh-токены загружаются одним запросом
+     * @param tokens    значения токенов
+     * @param tokenTypes типы токенов (элемент null — определить по формату), в порядке tokens
+     * @return результаты в порядке tokens
+     */
+    List<TokenIntrospection> introspectAll(List<String> tokens, List<TokenIntrospection.TokenType> tokenTypes);
+}
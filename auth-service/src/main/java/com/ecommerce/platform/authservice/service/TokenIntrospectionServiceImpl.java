@@ -0,0 +1,106 @@
+package com.ecommerce.platform.authservice.service;
+
+import com.ecommerce.platform.authservice.repository.RefreshTokenRepository;
+import com.ecommerce.platform.authservice.repository.RefreshTokenRow;
+import com.ecommerce.platform.authservice.security.JwtPrincipal;
+import com.ecommerce.platform.authservice.security.JwtService;
+import com.ecommerce.platform.authservice.security.TokenEpochRegistry;
+import com.ecommerce.platform.authservice.service.TokenIntrospection.InactiveReason;
+import com.ecommerce.platform.authservice.service.TokenIntrospection.TokenType;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+public class TokenIntrospectionServiceImpl implements TokenIntrospectionService {
+
+    private final JwtService jwtService;
+    private final TokenEpochRegistry tokenEpochRegistry;
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    @Override
+    public TokenIntrospection introspect(String token, TokenType tokenType) {
+        return introspectAll(List.of(token), Collections.singletonList(tokenType)).getFirst();
+    }
+
+    @Override
+    public List<TokenIntrospection> introspectAll(List<String> tokens, List<TokenType> tokenTypes) {
+        TokenType[] types = new TokenType[tokens.size()];
+        Set<String> refreshTokens = new HashSet<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            types[i] = resolveType(tokens.get(i), tokenTypes.get(i));
+            if (types[i] == TokenType.REFRESH && tokens.get(i) != null && !tokens.get(i).isBlank()) {
+                refreshTokens.add(tokens.get(i));
+            }
+        }
+        Map<String, RefreshTokenRow> stored = refreshTokens.isEmpty() ? Map.of() : loadRefreshTokens(refreshTokens);
+
+        Instant now = Instant.now();
+        List<TokenIntrospection> results = new ArrayList<>(tokens.size());
+        for (int i = 0; i < tokens.size(); i++) {
+            results.add(types[i] == TokenType.ACCESS
+                    ? introspectAccess(tokens.get(i))
+                    : introspectRefresh(stored.get(tokens.get(i)), now));
+        }
+        return results;
+    }
+
+    private TokenIntrospection introspectAccess(String token) {
+        JwtPrincipal principal;
+        try {
+            principal = jwtService.parseToken(token);
+        } catch (ExpiredJwtException ex) {
+            return TokenIntrospection.inactive(TokenType.ACCESS, InactiveReason.EXPIRED);
+        } catch (JwtException | IllegalArgumentException ex) {
+            return TokenIntrospection.inactive(TokenType.ACCESS, InactiveReason.INVALID);
+        }
+        if (tokenEpochRegistry.isRevoked(principal)) {
+            return TokenIntrospection.inactive(TokenType.ACCESS, InactiveReason.REVOKED);
+        }
+        return new TokenIntrospection(true, TokenType.ACCESS, null, principal.subject(), principal.userId(),
+                List.copyOf(principal.authorities()), principal.expiresAt(), principal.tokenId());
+    }
+
+    private static TokenIntrospection introspectRefresh(RefreshTokenRow row, Instant now) {
+        if (row == null) {
+            return TokenIntrospection.inactive(TokenType.REFRESH, InactiveReason.INVALID);
+        }
+        if (!row.expiryDate().isAfter(now)) {
+            return TokenIntrospection.inactive(TokenType.REFRESH, InactiveReason.EXPIRED);
+        }
+        return new TokenIntrospection(true, TokenType.REFRESH, null, row.email(), row.userId(),
+                List.of(), row.expiryDate(), null);
+    }
+
+    /**
+     * Транзакцию открывает сам запрос репозитория: пакет только из access-токенов не берёт соединение из пула
+     */
+    private Map<String, RefreshTokenRow> loadRefreshTokens(Set<String> tokens) {
+        Map<String, RefreshTokenRow> rows = new HashMap<>();
+        for (RefreshTokenRow row : refreshTokenRepository.findRowsByTokenIn(tokens)) {
+            rows.put(row.token(), row);
+        }
+        return rows;
+    }
+
+    /**
+     * Refresh-токены — непрозрачные UUID, access-токены — JWT из трёх частей
+     */
+    private static TokenType resolveType(String token, TokenType hint) {
+        if (hint != null) {
+            return hint;
+        }
+        return token != null && token.chars().filter(c -> c == '.').count() == 2 ? TokenType.ACCESS : TokenType.REFRESH;
+    }
+}
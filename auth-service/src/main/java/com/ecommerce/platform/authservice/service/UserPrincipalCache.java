@@ -0,0 +1,110 @@
+package com.ecommerce.platform.authservice.service;
+
+import com.ecommerce.platform.authservice.config.UserCacheConfig;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Ограниченный по размеру и TTL кэш принципалов (email -> хэш пароля и роли)
+ * перед UserRepository. Счётчики hit/miss/eviction публикуются в Micrometer
+ * как метрики cache.* с тегом cache=user.principals.
+ * <p>
+ * Загрузка выполняется вне блокировок кэша: в кэш кладётся незавершённый future,
+ * а запрос к БД идёт в вызывающем потоке. Параллельные запросы того же email ждут
+ * этот future. Загрузка внутри {@code Cache.get(key, loader)} держала бы монитор
+ * ConcurrentHashMap на время JDBC-запроса и закрепляла бы виртуальный поток за несущим.
+ */
+@Slf4j
+@Component
+public class UserPrincipalCache {
+
+    static final String CACHE_NAME = "user.principals";
+
+    private final AsyncCache<String, CachedUser> cache;
+
+    public UserPrincipalCache(UserCacheConfig config, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .expireAfterWrite(config.getTtl())
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Возвращает пользователя из кэша или загружает его. Отсутствующие пользователи не кэшируются.
+     * @param email email пользователя
+     * @param loader загрузка из БД, возвращает null если пользователь не найден
+     */
+    public Optional<CachedUser> get(String email, Function<String, CachedUser> loader) {
+        CompletableFuture<CachedUser> loading = new CompletableFuture<>();
+        CompletableFuture<CachedUser> cached = cache.get(email, (key, executor) -> loading);
+        if (cached == loading) {
+            try {
+                CachedUser user = loader.apply(email);
+                loading.complete(user);
+                return Optional.ofNullable(user);
+            } catch (RuntimeException ex) {
+                loading.completeExceptionally(ex);
+                throw ex;
+            }
+        }
+        try {
+            return Optional.ofNullable(cached.join());
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * Удаляет пользователя из кэша сразу и повторно после коммита текущей транзакции,
+     * чтобы параллельное чтение не вернуло в кэш незакоммиченное старое состояние
+     * @param email email пользователя
+     */
+    public void evict(String email) {
+        if (email == null) {
+            return;
+        }
+        cache.synchronous().invalidate(email);
+        afterCommit(() -> cache.synchronous().invalidate(email));
+        log.debug("Evicted cached principal: {}", email);
+    }
+
+    /**
+     * Очищает кэш сразу и повторно после коммита текущей транзакции, по той же причине, что и {@link #evict}
+     */
+    public void evictAll() {
+        cache.synchronous().invalidateAll();
+        afterCommit(() -> cache.synchronous().invalidateAll());
+    }
+
+    public CacheStats stats() {
+        return cache.synchronous().stats();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+    }
+}
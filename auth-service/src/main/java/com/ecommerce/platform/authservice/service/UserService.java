@@ -12,5 +12,9 @@ public interface UserService extends UserDetailsService {
     Optional<User> getUserById(long userId); // Возвращает Optional
     Optional<User> getUserByEmail(String email); // Возвращает Optional
     boolean existsByEmail(String email);
+    Optional<CachedUser> findPrincipal(String email); // Из кэша принципалов
     org.springframework.security.core.userdetails.User loadUserByUsername(String username);
+    void assignRole(long userId, String roleName); // Назначает роль и сбрасывает кэши пользователя
+    void revokeRole(long userId, String roleName); // Отзывает роль, сбрасывает кэши и выпущенные access-токены
+    int bumpTokenEpoch(long userId); // Отзывает все выпущенные access-токены пользователя
 }
@@ -1,21 +1,36 @@
 package com.ecommerce.platform.authservice.service;
 
+import com.ecommerce.platform.authservice.config.TokenEpochConfig;
 import com.ecommerce.platform.authservice.exception.UserAlreadyExistsException;
+import com.ecommerce.platform.authservice.exception.UserNotFoundException;
 import com.ecommerce.platform.authservice.model.Role;
 import com.ecommerce.platform.authservice.model.User;
+import com.ecommerce.platform.authservice.outbox.OutboxEventType;
+import com.ecommerce.platform.authservice.outbox.OutboxWriter;
+import com.ecommerce.platform.authservice.repository.PrincipalRow;
+import com.ecommerce.platform.authservice.repository.RoleRepository;
 import com.ecommerce.platform.authservice.repository.UserRepository;
+import com.ecommerce.platform.authservice.security.GrantedAuthorities;
+import com.ecommerce.platform.authservice.security.TokenEpochRegistry;
 import dto.AuthRequestDto;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.Collection;
+import java.sql.ResultSet;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -23,49 +38,140 @@ import java.util.stream.Collectors;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
+    private final JdbcTemplate jdbcTemplate;
+    private final TokenEpochConfig tokenEpochConfig;
+    private final TokenEpochRegistry tokenEpochRegistry;
+    private final OutboxWriter outboxWriter;
+    private final UserPrincipalCache userPrincipalCache;
+    private final TransactionTemplate transactionTemplate;
 
+    /**
+     * Хэш пароля считается до транзакции: хэширование с ожиданием очереди занимает до
+     * {@code password-hashing.timeout}, и всё это время соединение из пула было бы занято.
+     * Транзакция охватывает только вставку пользователя и запись события в outbox
+     */
     @Override
     public User createUser(AuthRequestDto request) {
         if(existsByEmail(request.email())){
             log.warn("Email {} already exists", request.email());
             throw new UserAlreadyExistsException("Email already in use");
         }
-        User user =  userRepository.save(
-                User.builder()
-                    .email(request.email())
-                    .password(passwordEncoder.encode(request.password()))
-                    .build()
-        );
+        String passwordHash = passwordEncoder.encode(request.password());
+        User user = transactionTemplate.execute(status -> {
+            User saved = userRepository.save(
+                    User.builder()
+                        .email(request.email())
+                        .password(passwordHash)
+                        .build()
+            );
+            outboxWriter.append(OutboxEventType.USER_REGISTERED, saved.getId(), Map.of("email", saved.getEmail()));
+            return saved;
+        });
+        userPrincipalCache.evict(user.getEmail());
         log.info("User created with ID: {}", user.getId());
         return user;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<User>  getUserById(long userId) {
         return userRepository.findById(userId);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<User> getUserByEmail(String email) {
         return userRepository.findByEmail(email);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public boolean existsByEmail(String email) {
         return userRepository.existsByEmail(email);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<CachedUser> findPrincipal(String email) {
+        return userPrincipalCache.get(email, this::loadPrincipal);
+    }
+
     @Override
     public org.springframework.security.core.userdetails.User loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByEmail(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found : "+username));
+        return findPrincipal(username)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found : "+username))
+                .toUserDetails();
+    }
+
+    @Override
+    @Transactional
+    public void assignRole(long userId, String roleName) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new UserNotFoundException("User not found"));
+        Role role = roleRepository.findByRole(roleName)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown role: " + roleName));
+        if (user.getRoles().add(role)) {
+            // Регион auth.user-roles Hibernate обновляет сам, кэш принципалов сбрасывается явно
+            // (сразу и после фиксации: изменение коллекции roles не вызывает entity-listener)
+            userPrincipalCache.evict(user.getEmail());
+            log.info("Role {} assigned to user: {}", roleName, userId);
+        }
+    }
 
-        return new org.springframework.security.core.userdetails.User(user.getUsername(),user.getPassword(),
-                mapRolesToAuthorities(user.getRoles()));
+    @Override
+    @Transactional
+    public void revokeRole(long userId, String roleName) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new UserNotFoundException("User not found"));
+        if (user.getRoles().removeIf(role -> roleName.equals(role.getRole()))) {
+            userPrincipalCache.evict(user.getEmail());
+            // В режиме stateless роли записаны в access-токен: без новой эпохи токен с отозванной
+            // ролью действовал бы до истечения. Эпоха поднимается в этой же транзакции
+            bumpTokenEpoch(userId);
+            log.info("Role {} revoked from user: {}", roleName, userId);
+        }
+    }
+
+    /**
+     * Увеличивает эпоху токенов и в той же транзакции отправляет NOTIFY остальным экземплярам.
+     * Локальная таблица эпох обновляется после фиксации, чтобы откат не отзывал токены.
+     * Время повышения одно для БД, NOTIFY и таблицы эпох, поэтому экземпляры забывают эпоху одновременно
+     */
+    @Override
+    @Transactional
+    public int bumpTokenEpoch(long userId) {
+        Instant bumpedAt = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        if (userRepository.incrementTokenEpoch(userId, bumpedAt) == 0) {
+            throw new UserNotFoundException("User not found");
+        }
+        int epoch = userRepository.findTokenEpochById(userId)
+                .orElseThrow(() -> new UserNotFoundException("User not found"));
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", (ResultSet rs) -> null,
+                tokenEpochConfig.getChannel(), userId + ":" + epoch + ":" + bumpedAt.toEpochMilli());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                tokenEpochRegistry.advance(userId, epoch, bumpedAt);
+            }
+        });
+        log.info("Token epoch for user {} advanced to {}", userId, epoch);
+        return epoch;
     }
 
-    private Collection<? extends GrantedAuthority> mapRolesToAuthorities(Collection<Role> roles){
-        return roles.stream().map(r -> new SimpleGrantedAuthority(r.getRole())).collect(Collectors.toList());
+    private CachedUser loadPrincipal(String email) {
+        List<PrincipalRow> rows = userRepository.findPrincipalByEmail(email);
+        if (rows.isEmpty()) {
+            return null;
+        }
+        PrincipalRow first = rows.get(0);
+        List<String> roleNames = new ArrayList<>(rows.size());
+        for (PrincipalRow row : rows) {
+            if (row.role() != null) {
+                roleNames.add(row.role());
+            }
+        }
+        return new CachedUser(first.id(), first.email(), first.password(), GrantedAuthorities.of(roleNames));
     }
 }
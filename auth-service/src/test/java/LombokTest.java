@@ -2,9 +2,14 @@ import com.ecommerce.platform.authservice.AuthServiceApplication;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
 
 @Slf4j
 @SpringBootTest(classes = AuthServiceApplication.class)
+@ActiveProfiles("dev")
+// Закрыть контекст после класса: его фоновый ретранслятор outbox иначе забирает события других тестов
+@DirtiesContext
 public class LombokTest {
     @Test
     void testLogger() {
@@ -0,0 +1,32 @@
+package com.ecommerce.platform.authservice.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class HibernateCacheConfigTest {
+
+    @Test
+    void regionsFromApplicationYamlBindByFullName() throws IOException {
+        List<PropertySource<?>> sources = new YamlPropertySourceLoader()
+                .load("application.yml", new ClassPathResource("application.yml"));
+        Binder binder = new Binder(ConfigurationPropertySources.from(sources));
+
+        HibernateCacheConfig config = binder.bind("hibernate-cache", Bindable.of(HibernateCacheConfig.class)).get();
+
+        assertEquals(10_000, config.getRegions().get(HibernateCacheConfig.USER_ROLES_REGION).getMaximumSize());
+        assertEquals(Duration.ofMinutes(30), config.getRegions().get(HibernateCacheConfig.USER_ROLES_REGION).getTtl());
+        assertEquals(1_000, config.getRegions().get(HibernateCacheConfig.ROLE_REGION).getMaximumSize());
+        assertEquals(Duration.ofHours(1), config.getRegions().get(HibernateCacheConfig.ROLE_QUERY_REGION).getTtl());
+    }
+}
@@ -0,0 +1,90 @@
+package com.ecommerce.platform.authservice.controller;
+
+import com.ecommerce.platform.authservice.AuthServiceApplication;
+import com.ecommerce.platform.authservice.model.Role;
+import com.ecommerce.platform.authservice.repository.RoleRepository;
+import com.ecommerce.platform.authservice.repository.UserRepository;
+import com.ecommerce.platform.authservice.service.UserService;
+import dto.AuthRequestDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = AuthServiceApplication.class,
+        properties = {"outbox.relay.enabled=false", "spring.grpc.server.port=0"})
+@AutoConfigureMockMvc
+@ActiveProfiles("dev")
+class UserRoleControllerTest {
+
+    private static final String ROLE = "ROLE_SUPPORT";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private RoleRepository roleRepository;
+
+    private long userId;
+    private String email;
+
+    @BeforeEach
+    void setUp() {
+        if (roleRepository.findByRole(ROLE).isEmpty()) {
+            Role role = new Role();
+            role.setRole(ROLE);
+            roleRepository.save(role);
+        }
+        email = "admin-api-" + UUID.randomUUID() + "@example.com";
+        userId = userService.createUser(new AuthRequestDto(email, "password123")).getId();
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void adminAssignsAndRevokesRole() throws Exception {
+        mockMvc.perform(put("/api/auth/admin/users/{id}/roles/{role}", userId, ROLE))
+                .andExpect(status().isNoContent());
+        assertEquals(List.of(ROLE), userService.findPrincipal(email).orElseThrow().roleNames());
+
+        mockMvc.perform(delete("/api/auth/admin/users/{id}/roles/{role}", userId, ROLE))
+                .andExpect(status().isNoContent());
+        assertEquals(List.of(), userService.findPrincipal(email).orElseThrow().roleNames());
+        assertEquals(1, userRepository.findTokenEpochById(userId).orElseThrow());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void unknownRoleIsBadRequest() throws Exception {
+        mockMvc.perform(put("/api/auth/admin/users/{id}/roles/{role}", userId, "ROLE_UNKNOWN"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser
+    void regularUserCannotChangeRoles() throws Exception {
+        mockMvc.perform(put("/api/auth/admin/users/{id}/roles/{role}", userId, ROLE))
+                .andExpect(status().isForbidden());
+        assertEquals(List.of(), userService.findPrincipal(email).orElseThrow().roleNames());
+    }
+
+    @Test
+    void anonymousCannotChangeRoles() throws Exception {
+        mockMvc.perform(delete("/api/auth/admin/users/{id}/roles/{role}", userId, ROLE))
+                .andExpect(status().is4xxClientError());
+    }
+}
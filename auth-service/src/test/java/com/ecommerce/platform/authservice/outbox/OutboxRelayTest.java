@@ -0,0 +1,110 @@
+package com.ecommerce.platform.authservice.outbox;
+
+import com.ecommerce.platform.authservice.AuthServiceApplication;
+import com.ecommerce.platform.authservice.config.OutboxConfig;
+import com.ecommerce.platform.authservice.model.User;
+import com.ecommerce.platform.authservice.repository.OutboxEventRepository;
+import com.ecommerce.platform.authservice.repository.UserRepository;
+import com.ecommerce.platform.authservice.service.UserService;
+import dto.AuthRequestDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.ecommerce.platform.authservice.outbox.OutboxEventType.TOKEN_REFRESHED;
+import static com.ecommerce.platform.authservice.outbox.OutboxEventType.USER_LOGGED_IN;
+import static com.ecommerce.platform.authservice.outbox.OutboxEventType.USER_LOGGED_OUT;
+import static com.ecommerce.platform.authservice.outbox.OutboxEventType.USER_REGISTERED;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Ретранслятор создаётся вручную с порциями по 2 события, чтобы события пользователей
+ * расходились по нескольким публикациям; фоновый ретранслятор отключён
+ */
+@SpringBootTest(classes = AuthServiceApplication.class,
+        properties = {"outbox.relay.enabled=false", "spring.grpc.server.port=0"})
+@ActiveProfiles("dev")
+class OutboxRelayTest {
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private OutboxWriter outboxWriter;
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final InMemoryOutboxPublisher publisher = new InMemoryOutboxPublisher();
+    private TransactionTemplate transactionTemplate;
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        OutboxConfig config = new OutboxConfig();
+        config.getRelay().setBatchSize(2);
+        relay = new OutboxRelay(outboxEventRepository, publisher, config, transactionManager, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void appendIsRolledBackWithItsChange() {
+        String email = uniqueEmail();
+        AtomicLong userId = new AtomicLong();
+
+        assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            User user = userRepository.save(User.builder().email(email).password("{noop}unused").build());
+            userId.set(user.getId());
+            outboxWriter.append(USER_REGISTERED, user.getId(), Map.of("email", email));
+            throw new IllegalStateException("rollback");
+        }));
+        relay.drain();
+
+        assertFalse(userRepository.existsByEmail(email));
+        assertTrue(publisher.publishedFor(userId.get()).isEmpty());
+    }
+
+    @Test
+    void eventsOfEachUserArePublishedInOrderAcrossBatches() {
+        long first = userService.createUser(new AuthRequestDto(uniqueEmail(), "password123")).getId();
+        long second = userService.createUser(new AuthRequestDto(uniqueEmail(), "password123")).getId();
+        for (OutboxEventType type : List.of(USER_LOGGED_IN, TOKEN_REFRESHED, USER_LOGGED_OUT)) {
+            append(first, type);
+            append(second, type);
+        }
+
+        relay.drain();
+
+        List<OutboxEventType> expected = List.of(USER_REGISTERED, USER_LOGGED_IN, TOKEN_REFRESHED, USER_LOGGED_OUT);
+        for (long userId : List.of(first, second)) {
+            List<OutboxMessage> messages = publisher.publishedFor(userId);
+            assertEquals(expected, messages.stream().map(OutboxMessage::type).toList());
+            for (int i = 1; i < messages.size(); i++) {
+                assertTrue(messages.get(i - 1).id() < messages.get(i).id());
+            }
+        }
+    }
+
+    private void append(long userId, OutboxEventType type) {
+        transactionTemplate.executeWithoutResult(status -> outboxWriter.append(type, userId, Map.of()));
+    }
+
+    private static String uniqueEmail() {
+        return "outbox-" + UUID.randomUUID() + "@example.com";
+    }
+}
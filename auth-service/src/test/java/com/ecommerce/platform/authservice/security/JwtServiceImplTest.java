@@ -0,0 +1,132 @@
+package com.ecommerce.platform.authservice.security;
+
+import com.ecommerce.platform.authservice.config.JwtConfig;
+import com.ecommerce.platform.authservice.model.User;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtServiceImplTest {
+
+    private static final String LEGACY_SECRET = Base64.getEncoder().encodeToString(new byte[32]);
+
+    private JwtConfig jwtConfig;
+    private TokenEpochRegistry tokenEpochRegistry;
+    private JwtServiceImpl jwtService;
+
+    @BeforeEach
+    void setUp() {
+        jwtConfig = new JwtConfig();
+        jwtConfig.getSigning().setAllowEphemeralKeys(true);
+        jwtConfig.setIssuer("test-issuer");
+        jwtConfig.setAccessExpiration(60_000);
+        jwtConfig.setRefreshExpiration(120_000);
+        JwtKeyRing keyRing = new JwtKeyRing(jwtConfig);
+        tokenEpochRegistry = new TokenEpochRegistry(jwtConfig);
+        jwtService = new JwtServiceImpl(keyRing, jwtConfig, jwtConfig.jwtParser(keyRing), tokenEpochRegistry,
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    void parseTokenReturnsVerifiedPrincipal() {
+        String token = jwtService.generateAccessToken(user("alice@example.com"));
+
+        JwtPrincipal principal = jwtService.parseToken(token);
+
+        assertEquals("alice@example.com", principal.subject());
+        assertEquals("test-issuer", principal.issuer());
+        assertNotNull(principal.tokenId());
+        assertNotNull(principal.expiresAt());
+    }
+
+    @Test
+    void tokensAreSignedWithActiveKid() {
+        String token = jwtService.generateAccessToken(user("dave@example.com"));
+        String header = new String(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))));
+
+        assertTrue(header.contains("\"alg\":\"RS256\""), header);
+        assertTrue(header.contains("\"kid\":\"ephemeral-"), header);
+    }
+
+    @Test
+    void parseTokenRejectsExpiredToken() {
+        jwtConfig.setAccessExpiration(-1_000);
+        String token = jwtService.generateAccessToken(user("bob@example.com"));
+
+        assertThrows(ExpiredJwtException.class, () -> jwtService.parseToken(token));
+        assertFalse(jwtService.isTokenValid(token));
+    }
+
+    @Test
+    void tokensIssuedBeforeEpochBumpAreRevoked() {
+        String before = jwtService.generateAccessToken(user("erin@example.com"));
+        tokenEpochRegistry.advance(1L, 1, Instant.now());
+        String after = jwtService.generateAccessToken(user("erin@example.com"));
+
+        assertTrue(tokenEpochRegistry.isRevoked(jwtService.parseToken(before)));
+        assertFalse(tokenEpochRegistry.isRevoked(jwtService.parseToken(after)));
+        assertEquals(1, jwtService.parseToken(after).tokenEpoch());
+    }
+
+    @Test
+    void parseTokenRejectsTamperedToken() {
+        String token = jwtService.generateAccessToken(user("carol@example.com"));
+        int i = token.lastIndexOf('.') + 5;
+        String tampered = token.substring(0, i) + (token.charAt(i) == 'A' ? 'B' : 'A') + token.substring(i + 1);
+
+        assertThrows(JwtException.class, () -> jwtService.parseToken(tampered));
+        assertThrows(JwtException.class, () -> jwtService.parseToken(" "));
+    }
+
+    @Test
+    void tokensWithoutKidAreRejectedUnlessLegacyHmacIsEnabled() {
+        String legacy = Jwts.builder()
+                .subject("mallory@example.com")
+                .issuer("test-issuer")
+                .claim("roles", List.of("ROLE_ADMIN"))
+                .expiration(Date.from(Instant.now().plusSeconds(60)))
+                .signWith(Keys.hmacShaKeyFor(Base64.getDecoder().decode(LEGACY_SECRET)))
+                .compact();
+        assertThrows(JwtException.class, () -> jwtService.parseToken(legacy));
+
+        jwtConfig.getLegacyHmac().setEnabled(true);
+        jwtConfig.getLegacyHmac().setSecret(LEGACY_SECRET);
+        jwtConfig.getLegacyHmac().setAcceptUntil(Instant.now().plusSeconds(60));
+        assertEquals("mallory@example.com", newJwtService().parseToken(legacy).subject());
+
+        jwtConfig.getLegacyHmac().setAcceptUntil(Instant.now().minusSeconds(1));
+        assertThrows(JwtException.class, () -> newJwtService().parseToken(legacy));
+    }
+
+    @Test
+    void startupFailsWithoutSigningKeysOutsideDevProfile() {
+        jwtConfig.getSigning().setAllowEphemeralKeys(false);
+        assertThrows(IllegalStateException.class, () -> new JwtKeyRing(jwtConfig));
+
+        jwtConfig.getSigning().setAllowEphemeralKeys(true);
+        jwtConfig.getLegacyHmac().setEnabled(true);
+        jwtConfig.getLegacyHmac().setSecret(LEGACY_SECRET);
+        assertThrows(IllegalStateException.class, () -> new JwtKeyRing(jwtConfig));
+    }
+
+    private JwtServiceImpl newJwtService() {
+        JwtKeyRing keyRing = new JwtKeyRing(jwtConfig);
+        return new JwtServiceImpl(keyRing, jwtConfig, jwtConfig.jwtParser(keyRing), tokenEpochRegistry,
+                new SimpleMeterRegistry());
+    }
+
+    private static User user(String email) {
+        return User.builder().id(1L).email(email).password("hash").build();
+    }
+}
@@ -0,0 +1,48 @@
+package com.ecommerce.platform.authservice.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlidingWindowRateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong(60_000);
+    private final SlidingWindowRateLimiter limiter =
+            new SlidingWindowRateLimiter(3, Duration.ofSeconds(60), 100, 4, now::get);
+
+    @Test
+    void rejectsAttemptsOverLimitWithinWindow() {
+        assertEquals(0, limiter.tryAcquire("a"));
+        assertEquals(0, limiter.tryAcquire("a"));
+        assertEquals(0, limiter.tryAcquire("a"));
+
+        assertTrue(limiter.tryAcquire("a") > 0);
+        assertEquals(0, limiter.tryAcquire("b"));
+    }
+
+    @Test
+    void previousWindowDecaysGradually() {
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("a");
+        }
+        now.addAndGet(60_000 + 10_000);
+        long retryAfter = limiter.tryAcquire("a");
+        assertEquals(10_000, retryAfter);
+
+        now.addAndGet(retryAfter);
+        assertEquals(0, limiter.tryAcquire("a"));
+    }
+
+    @Test
+    void resetClearsKey() {
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire("a");
+        }
+        limiter.reset("a");
+
+        assertEquals(0, limiter.tryAcquire("a"));
+    }
+}
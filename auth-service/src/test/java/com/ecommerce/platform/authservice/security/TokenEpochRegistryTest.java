@@ -0,0 +1,74 @@
+package com.ecommerce.platform.authservice.security;
+
+import com.ecommerce.platform.authservice.config.JwtConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenEpochRegistryTest {
+
+    private static final long ACCESS_EXPIRATION_MS = 60_000;
+
+    private JwtConfig jwtConfig;
+    private TokenEpochRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        jwtConfig = new JwtConfig();
+        jwtConfig.setAccessExpiration(ACCESS_EXPIRATION_MS);
+        registry = new TokenEpochRegistry(jwtConfig);
+    }
+
+    @Test
+    void recentBumpRevokesOlderTokens() {
+        registry.advance(1L, 2, Instant.now());
+
+        assertTrue(registry.isRevoked(principal(1L, 1)));
+        assertFalse(registry.isRevoked(principal(1L, 2)));
+        assertEquals(2, registry.current(1L));
+    }
+
+    @Test
+    void bumpOlderThanAccessExpirationIsNotKept() {
+        registry.advance(1L, 2, Instant.now().minusMillis(ACCESS_EXPIRATION_MS + 1_000));
+
+        assertEquals(0, registry.size());
+        assertFalse(registry.isRevoked(principal(1L, 0)));
+    }
+
+    @Test
+    void expiredEntryStopsRevokingButIsEvictedOnlyAfterMargin() {
+        registry.advance(1L, 3, Instant.now().minusSeconds(30));
+        assertTrue(registry.isRevoked(principal(1L, 2)));
+
+        jwtConfig.setAccessExpiration(20_000);
+
+        assertFalse(registry.isRevoked(principal(1L, 2)));
+        assertEquals(0, registry.evictExpired());
+        assertEquals(1, registry.size());
+    }
+
+    @Test
+    void evictionRemovesBumpsOlderThanExpirationAndMargin() {
+        jwtConfig.setAccessExpiration(600_000);
+        registry.advance(1L, 1, Instant.now());
+        registry.advance(2L, 1, Instant.now().minusSeconds(300));
+
+        jwtConfig.setAccessExpiration(120_000);
+
+        assertEquals(1, registry.evictExpired());
+        assertEquals(1, registry.current(1L));
+        assertEquals(0, registry.current(2L));
+    }
+
+    private static JwtPrincipal principal(Long userId, int epoch) {
+        return new JwtPrincipal(userId, "user@example.com", "issuer", Instant.now().plusSeconds(60),
+                Set.of(), "jti", epoch);
+    }
+}
@@ -0,0 +1,105 @@
+package com.ecommerce.platform.authservice.service;
+
+import com.ecommerce.platform.authservice.AuthServiceApplication;
+import com.ecommerce.platform.authservice.model.Role;
+import com.ecommerce.platform.authservice.repository.RoleRepository;
+import com.ecommerce.platform.authservice.repository.UserRepository;
+import com.ecommerce.platform.authservice.security.TokenEpochRegistry;
+import dto.AuthRequestDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(classes = AuthServiceApplication.class,
+        properties = {"outbox.relay.enabled=false", "spring.grpc.server.port=0"})
+@ActiveProfiles("dev")
+class UserRoleChangeTest {
+
+    private static final String ROLE = "ROLE_ADMIN";
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private RoleRepository roleRepository;
+    @Autowired
+    private TokenEpochRegistry tokenEpochRegistry;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        if (roleRepository.findByRole(ROLE).isEmpty()) {
+            Role role = new Role();
+            role.setRole(ROLE);
+            roleRepository.save(role);
+        }
+    }
+
+    @Test
+    void revokingRoleRevokesIssuedAccessTokens() {
+        long userId = userService.createUser(new AuthRequestDto(uniqueEmail(), "password123")).getId();
+        userService.assignRole(userId, ROLE);
+        assertEquals(0, epoch(userId));
+
+        userService.revokeRole(userId, ROLE);
+
+        assertEquals(1, epoch(userId));
+        assertEquals(1, tokenEpochRegistry.current(userId));
+    }
+
+    @Test
+    void revokingMissingRoleKeepsTokens() {
+        long userId = userService.createUser(new AuthRequestDto(uniqueEmail(), "password123")).getId();
+
+        userService.revokeRole(userId, ROLE);
+
+        assertEquals(0, epoch(userId));
+        assertEquals(0, tokenEpochRegistry.current(userId));
+    }
+
+    @Test
+    void renamedRoleIsNotServedFromCacheAfterCommit() throws Exception {
+        String oldName = "ROLE_OLD_" + UUID.randomUUID();
+        String newName = "ROLE_NEW_" + UUID.randomUUID();
+        Role role = new Role();
+        role.setRole(oldName);
+        roleRepository.save(role);
+        String email = uniqueEmail();
+        long userId = userService.createUser(new AuthRequestDto(email, "password123")).getId();
+        userService.assignRole(userId, oldName);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Role renamed = roleRepository.findByRole(oldName).orElseThrow();
+            renamed.setRole(newName);
+            roleRepository.flush();
+            // Вход в другой транзакции до коммита читает и кэширует старое имя
+            Thread login = new Thread(() -> userService.findPrincipal(email));
+            login.start();
+            try {
+                login.join();
+            } catch (InterruptedException ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+
+        assertEquals(List.of(newName), userService.findPrincipal(email).orElseThrow().roleNames());
+    }
+
+    private int epoch(long userId) {
+        return userRepository.findTokenEpochById(userId).orElseThrow();
+    }
+
+    private static String uniqueEmail() {
+        return "roles-" + UUID.randomUUID() + "@example.com";
+    }
+}
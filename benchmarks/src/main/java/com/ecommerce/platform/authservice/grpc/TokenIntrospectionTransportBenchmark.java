@@ -0,0 +1,183 @@
+package com.ecommerce.platform.authservice.grpc;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import introspection.IntrospectBatchRequest;
+import introspection.IntrospectRequest;
+import introspection.TokenIntrospectionServiceGrpc;
+import introspection.TokenType;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Проверка access-токенов в запущенном auth-service: gRPC (HTTP/2, protobuf) против
+ * эквивалентного REST-вызова /internal/introspect (HTTP/1.1 keep-alive, JSON).
+ * <p>
+ * Время операции — задержка одного вызова из batchSize токенов. После каждой итерации
+ * печатается процессорное время на один проверенный токен: сервера (по process_cpu_time_ns_total
+ * из /actuator/prometheus) и клиента (вместе с обвязкой JMH).
+ * <p>
+ * tokenKind=signed — действительный токен, в стоимость входит проверка подписи;
+ * tokenKind=malformed — токен отклоняется до проверки подписи, остаются транспорт и сериализация.
+ * <p>
+ * Требует работающий auth-service и существующего пользователя, например:
+ * {@code java -jar benchmarks/target/benchmarks.jar TokenIntrospectionTransport -p email=alice@example.com}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TokenIntrospectionTransportBenchmark {
+
+    private static final Pattern CPU_TIME = Pattern.compile("(?m)^process_cpu_time_ns_total (\\S+)$");
+
+    @Param({"1", "16"})
+    public int batchSize;
+
+    @Param({"signed", "malformed"})
+    public String tokenKind;
+
+    @Param("http://localhost:8080")
+    public String httpUri;
+
+    @Param("localhost:9090")
+    public String grpcTarget;
+
+    @Param("alice@example.com")
+    public String email;
+
+    @Param("password123")
+    public String password;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final com.sun.management.OperatingSystemMXBean os =
+            (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+
+    private ManagedChannel channel;
+    private TokenIntrospectionServiceGrpc.TokenIntrospectionServiceBlockingStub stub;
+    private HttpClient httpClient;
+    private IntrospectRequest grpcRequest;
+    private IntrospectBatchRequest grpcBatchRequest;
+    private HttpRequest restRequest;
+
+    private long validations;
+    private long serverCpuStart;
+    private long clientCpuStart;
+
+    @Setup
+    public void setUp() throws Exception {
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        String token = "signed".equals(tokenKind) ? login() : "malformed.benchmark.token";
+
+        channel = ManagedChannelBuilder.forTarget(grpcTarget).usePlaintext().build();
+        stub = TokenIntrospectionServiceGrpc.newBlockingStub(channel);
+        grpcRequest = IntrospectRequest.newBuilder().setToken(token).setTokenTypeHint(TokenType.ACCESS).build();
+        grpcBatchRequest = IntrospectBatchRequest.newBuilder()
+                .addAllRequests(Collections.nCopies(batchSize, grpcRequest))
+                .build();
+
+        List<Map<String, String>> items = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            items.add(Map.of("token", token, "tokenTypeHint", "ACCESS"));
+        }
+        restRequest = batchSize == 1
+                ? post("/internal/introspect", objectMapper.writeValueAsString(items.getFirst()))
+                : post("/internal/introspect/batch", objectMapper.writeValueAsString(items));
+
+        if (grpc() != "signed".equals(tokenKind) || rest() != "signed".equals(tokenKind)) {
+            throw new IllegalStateException("auth-service returned an unexpected result for the " + tokenKind + " token");
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void startCpu() throws Exception {
+        validations = 0;
+        serverCpuStart = serverCpuNanos();
+        clientCpuStart = os.getProcessCpuTime();
+    }
+
+    @TearDown(Level.Iteration)
+    public void reportCpu() throws Exception {
+        long server = serverCpuNanos() - serverCpuStart;
+        long client = os.getProcessCpuTime() - clientCpuStart;
+        if (validations > 0) {
+            System.out.printf("%n  cpu per validation: server %.1f us, client %.1f us (%d validations)%n",
+                    server / 1000.0 / validations, client / 1000.0 / validations, validations);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        channel.shutdown().awaitTermination(5, TimeUnit.SECONDS);
+        httpClient.close();
+    }
+
+    @Benchmark
+    public boolean grpc() {
+        validations += batchSize;
+        if (batchSize == 1) {
+            return stub.introspect(grpcRequest).getActive();
+        }
+        return stub.introspectBatch(grpcBatchRequest).getResults(batchSize - 1).getActive();
+    }
+
+    @Benchmark
+    public boolean rest() throws IOException, InterruptedException {
+        validations += batchSize;
+        byte[] body = httpClient.send(restRequest, HttpResponse.BodyHandlers.ofByteArray()).body();
+        JsonNode result = objectMapper.readTree(body);
+        return (batchSize == 1 ? result : result.get(batchSize - 1)).get("active").asBoolean();
+    }
+
+    private String login() throws IOException, InterruptedException {
+        String credentials = objectMapper.writeValueAsString(Map.of("email", email, "password", password));
+        HttpResponse<String> response = httpClient.send(post("/api/auth/login", credentials),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login failed with " + response.statusCode() + ": " + response.body());
+        }
+        return objectMapper.readTree(response.body()).get("accessToken").asText();
+    }
+
+    private long serverCpuNanos() throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(httpUri + "/actuator/prometheus")).GET().build();
+        Matcher matcher = CPU_TIME.matcher(httpClient.send(request, HttpResponse.BodyHandlers.ofString()).body());
+        return matcher.find() ? (long) Double.parseDouble(matcher.group(1)) : 0;
+    }
+
+    private HttpRequest post(String path, String json) {
+        return HttpRequest.newBuilder(URI.create(httpUri + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+}
@@ -0,0 +1,57 @@
+package com.ecommerce.platform.authservice.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Преобразование имён ролей в GrantedAuthority через {@link GrantedAuthorities}:
+ * список (загрузка принципала из БД) и множество (claims токена)
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GrantedAuthoritiesBenchmark {
+
+    @Param({"1", "3", "10"})
+    public int roleCount;
+
+    private List<String> roleList;
+    private Set<String> roleSet;
+
+    @Setup
+    public void setUp() {
+        roleList = new ArrayList<>(roleCount);
+        for (int i = 0; i < roleCount; i++) {
+            roleList.add("ROLE_" + i);
+        }
+        roleSet = Set.copyOf(new HashSet<>(roleList));
+    }
+
+    @Benchmark
+    public Set<?> fromList() {
+        return GrantedAuthorities.of(roleList);
+    }
+
+    @Benchmark
+    public Set<?> fromSet() {
+        return GrantedAuthorities.of(roleSet);
+    }
+}
@@ -0,0 +1,79 @@
+package com.ecommerce.platform.authservice.security;
+
+import com.ecommerce.platform.authservice.config.JwtConfig;
+import com.ecommerce.platform.authservice.config.JwtConfig.AuthenticationMode;
+import constant.Constant;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Полный проход {@link JwtAuthenticationFilter#doFilterInternal} для запроса с валидным токеном.
+ * <p>
+ * UserDetailsService и цепочка фильтров заменены заглушками, поэтому в режиме DATABASE
+ * измеряется только накладной расход фильтра без обращения к кэшу и БД.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class JwtAuthenticationFilterBenchmark {
+
+    @Param({"STATELESS", "DATABASE"})
+    public AuthenticationMode mode;
+
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private FilterChain filterChain;
+
+    @Setup
+    public void setUp() {
+        JwtServiceImpl jwtService = JwtFixtures.jwtService("EdDSA");
+        UserDetails userDetails = new User(JwtFixtures.EMAIL, "",
+                List.of(new SimpleGrantedAuthority("ROLE_USER"), new SimpleGrantedAuthority("ROLE_ADMIN")));
+        UserDetailsService userDetailsService = username -> userDetails;
+        filter = new JwtAuthenticationFilter(jwtService, userDetailsService, mode, new TokenEpochRegistry(new JwtConfig()),
+                new SimpleMeterRegistry());
+
+        request = new MockHttpServletRequest("GET", "/api/orders");
+        request.addHeader(Constant.AUTH_HEADER, Constant.BEARER_PREFIX + jwtService.generateAccessToken(JwtFixtures.user()));
+        response = new MockHttpServletResponse();
+        filterChain = (req, res) -> { };
+    }
+
+    @TearDown(Level.Invocation)
+    public void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public Object doFilterInternal() throws Exception {
+        filter.doFilterInternal(request, response, filterChain);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
@@ -0,0 +1,45 @@
+package com.ecommerce.platform.authservice.security;
+
+import com.ecommerce.platform.authservice.config.JwtConfig;
+import com.ecommerce.platform.authservice.model.Role;
+import com.ecommerce.platform.authservice.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Общие объекты для бенчмарков JWT: сервис с временными ключами и тестовый пользователь
+ */
+final class JwtFixtures {
+
+    static final String EMAIL = "bench@example.com";
+
+    private JwtFixtures() {
+    }
+
+    static JwtServiceImpl jwtService(String algorithm) {
+        JwtConfig jwtConfig = new JwtConfig();
+        jwtConfig.setIssuer("benchmark-issuer");
+        jwtConfig.setAccessExpiration(3_600_000);
+        jwtConfig.setRefreshExpiration(7_200_000);
+        jwtConfig.getSigning().setAlgorithm(algorithm);
+        jwtConfig.getSigning().setAllowEphemeralKeys(true);
+        JwtKeyRing keyRing = new JwtKeyRing(jwtConfig);
+        return new JwtServiceImpl(keyRing, jwtConfig, jwtConfig.jwtParser(keyRing), new TokenEpochRegistry(jwtConfig),
+                new SimpleMeterRegistry());
+    }
+
+    static User user() {
+        Role userRole = new Role();
+        userRole.setRole("ROLE_USER");
+        Role adminRole = new Role();
+        adminRole.setRole("ROLE_ADMIN");
+        return User.builder()
+                .id(42L)
+                .email(EMAIL)
+                .password("{bcrypt}unused")
+                .roles(new HashSet<>(Set.of(userRole, adminRole)))
+                .build();
+    }
+}
@@ -0,0 +1,31 @@
+package com.ecommerce.platform.benchmarks;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Запуск бенчмарков с профилировщиком GC: кроме пропускной способности
+ * выводится gc.alloc.rate.norm (байт на операцию).
+ * <p>
+ * Принимает обычные аргументы JMH, например:
+ * {@code java -jar benchmarks/target/benchmarks.jar JwtService -rf json -rff jwt.json}
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions options = new CommandLineOptions(args);
+        if (options.shouldHelp() || options.shouldList() || options.shouldListWithParams()
+                || options.shouldListProfilers() || options.shouldListResultFormats()) {
+            Main.main(args);
+            return;
+        }
+        new Runner(new OptionsBuilder()
+                .parent(options)
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+}
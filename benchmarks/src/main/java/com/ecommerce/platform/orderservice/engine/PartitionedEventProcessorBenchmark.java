@@ -0,0 +1,82 @@
+package com.ecommerce.platform.orderservice.engine;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Пропускная способность {@link PartitionedEventProcessor} в зависимости от числа партиций.
+ * <p>
+ * Одна операция — событие, прошедшее очередь и обработчик. Вызов отправляет {@link #BATCH}
+ * событий по {@link #KEYS} ключам (ожидая места в очереди, как приёмный API) и ждёт их обработки.
+ * Обработчик тратит {@code work} условных единиц CPU на событие; при нулевой работе
+ * измеряется накладной расход очередей. Масштабирование ограничено числом ядер машины.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PartitionedEventProcessorBenchmark {
+
+    private static final int BATCH = 10_000;
+    private static final int KEYS = 1_024;
+    private static final Duration OFFER_TIMEOUT = Duration.ofSeconds(10);
+
+    @Param({"1", "2", "4", "8"})
+    public int partitions;
+
+    @Param({"0", "500"})
+    public int work;
+
+    private final LongAdder handled = new LongAdder();
+    private PartitionedEventProcessor<Integer, Integer> processor;
+    private long expected;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        int tokens = work;
+        processor = new PartitionedEventProcessor<>("benchmark", partitions, 1_024, (key, event) -> {
+            Blackhole.consumeCPU(tokens);
+            handled.increment();
+        }, new SimpleMeterRegistry());
+        processor.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        processor.shutdown(Duration.ofSeconds(30));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void submitAndProcess() throws InterruptedException {
+        for (int i = 0; i < BATCH; i++) {
+            if (!processor.offer(i % KEYS, i, OFFER_TIMEOUT)) {
+                throw new IllegalStateException("Event rejected");
+            }
+        }
+        expected += BATCH;
+        while (handled.sum() < expected) {
+            Thread.onSpinWait();
+        }
+    }
+}
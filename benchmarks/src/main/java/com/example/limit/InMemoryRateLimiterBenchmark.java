@@ -0,0 +1,127 @@
+package com.example.limit;
+
+import com.example.config.RateLimitConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Накладные расходы {@link InMemoryRateLimiter} на запрос.
+ * <p>
+ * {@code tryAcquire} — только таблица bucket'ов, {@code isAllowed} — весь вызов из фильтра
+ * RequestRateLimiter, включая заголовки ответа и метрики. {@code keys=1} — один активный клиент,
+ * {@code keys=100000} — ключи не помещаются в кэш процессора. Квота {@code open} (burst 1000, пополнение быстрее запросов) пропускает
+ * все запросы, {@code tight} (10/с, burst 20) почти все отклоняет. Таблица {@code fits} вмещает все ключи,
+ * в {@code churn} помещается половина, и при переборе ключей по кругу каждый запрос вытесняет bucket по LRU.
+ * <p>
+ * {@code tryAcquireContended} — та же таблица из {@value #CONTENDED_THREADS} потоков, как с нескольких
+ * event loop'ов: при {@code keys=1} все потоки ждут блокировку одного шарда, при {@code keys=100000}
+ * каждый поток идёт по ключам со своего места и шарды совпадают случайно. Время — на один вызов
+ * в потоке; имеет смысл только при числе ядер не меньше числа потоков.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InMemoryRateLimiterBenchmark {
+
+    private static final String ROUTE_ID = "benchmark";
+    private static final int CONTENDED_THREADS = 4;
+
+    @Param({"1", "100000"})
+    public int keys;
+
+    @Param({"open", "tight"})
+    public String quota;
+
+    @Param({"fits", "churn"})
+    public String capacity;
+
+    private InMemoryRateLimiter rateLimiter;
+    private TokenBucketTable table;
+    private String[] ids;
+    private int next;
+    private int replenishRate;
+    private int burstCapacity;
+
+    @Setup
+    public void setUp() {
+        boolean open = "open".equals(quota);
+        replenishRate = open ? 1_000_000_000 : 10;
+        burstCapacity = open ? 1_000 : 20;
+
+        RateLimitConfig properties = new RateLimitConfig();
+        properties.setReplenishRate(replenishRate);
+        properties.setBurstCapacity(burstCapacity);
+        properties.setMaxBuckets("fits".equals(capacity)
+                ? Math.max(properties.getMaxBuckets(), keys * 2)
+                : Math.max(properties.getShards(), keys / 2));
+        rateLimiter = new InMemoryRateLimiter(properties, null, new SimpleMeterRegistry());
+        table = new TokenBucketTable(properties.getShards(), properties.getMaxBuckets());
+
+        ids = new String[keys];
+        for (int i = 0; i < keys; i++) {
+            ids[i] = "user:client-" + i + "@example.com";
+        }
+    }
+
+    @Benchmark
+    public long tryAcquire() {
+        return table.tryAcquire(nextId(), Math.max(1, 1_000_000_000L / replenishRate), burstCapacity, 1,
+                System.nanoTime());
+    }
+
+    @Benchmark
+    @Threads(CONTENDED_THREADS)
+    public long tryAcquireContended(Cursor cursor) {
+        return table.tryAcquire(cursor.nextId(ids), Math.max(1, 1_000_000_000L / replenishRate), burstCapacity, 1,
+                System.nanoTime());
+    }
+
+    @Benchmark
+    public RateLimiter.Response isAllowed() {
+        return rateLimiter.isAllowed(ROUTE_ID, nextId()).block();
+    }
+
+    private String nextId() {
+        int i = next;
+        next = i + 1 == ids.length ? 0 : i + 1;
+        return ids[i];
+    }
+
+    /**
+     * Позиция перебора ключей своя у каждого потока
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        private int next;
+
+        @Setup
+        public void setUp(InMemoryRateLimiterBenchmark benchmark) {
+            next = ThreadLocalRandom.current().nextInt(benchmark.ids.length);
+        }
+
+        String nextId(String[] ids) {
+            int i = next;
+            next = i + 1 == ids.length ? 0 : i + 1;
+            return ids[i];
+        }
+    }
+}
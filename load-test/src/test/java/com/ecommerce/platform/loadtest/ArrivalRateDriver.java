@@ -0,0 +1,67 @@
+package com.ecommerce.platform.loadtest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Генератор нагрузки с фиксированной частотой прихода запросов (открытая модель).
+ * <p>
+ * Для каждой операции отдельный поток планирует запросы через равные интервалы
+ * и не ждёт ответов: каждый запрос выполняется в своём виртуальном потоке.
+ * Медленный сервис поэтому не снижает предлагаемую нагрузку, а рост очереди
+ * виден в латентности.
+ */
+final class ArrivalRateDriver {
+
+    private final AuthTraffic traffic;
+
+    ArrivalRateDriver(AuthTraffic traffic) {
+        this.traffic = traffic;
+    }
+
+    /**
+     * Подаёт нагрузку в течение {@code duration}; запросы, запланированные раньше
+     * {@code warmup}, выполняются, но не учитываются в статистике
+     */
+    Map<Operation, OperationStats> run(Map<Operation, Double> rates, Duration duration, Duration warmup)
+            throws InterruptedException {
+        Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+        OperationStats discarded = new OperationStats();
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = start + duration.toNanos();
+
+        try (ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Thread> schedulers = new ArrayList<>();
+            rates.forEach((operation, rate) -> {
+                if (rate <= 0) {
+                    return;
+                }
+                OperationStats operationStats = new OperationStats();
+                stats.put(operation, operationStats);
+                long intervalNanos = (long) (1_000_000_000L / rate);
+                schedulers.add(Thread.ofPlatform().name("load-" + operation.name().toLowerCase()).start(() -> {
+                    for (long scheduled = start; scheduled < end; scheduled += intervalNanos) {
+                        long delay = scheduled - System.nanoTime();
+                        if (delay > 0) {
+                            LockSupport.parkNanos(delay);
+                        }
+                        long scheduledAt = scheduled;
+                        OperationStats target = scheduledAt >= measureFrom ? operationStats : discarded;
+                        requests.submit(() -> traffic.execute(operation, scheduledAt, target));
+                    }
+                }));
+            });
+            for (Thread scheduler : schedulers) {
+                scheduler.join();
+            }
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,101 @@
+package com.ecommerce.platform.loadtest;
+
+import com.ecommerce.platform.authservice.AuthServiceApplication;
+import com.ecommerce.platform.authservice.service.UserService;
+import dto.AuthRequestDto;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Смешанная нагрузка login/refresh/logout/защищённый запрос на auth-service,
+ * запущенный в этом же процессе поверх встроенного Postgres.
+ * <p>
+ * Результат записывается в {@code loadtest.report}; тест падает, если доля ошибок
+ * превышает {@code loadtest.max-error-rate} или, при заданном {@code loadtest.baseline},
+ * p99 либо пропускная способность хуже baseline больше чем на {@code loadtest.max-regression}.
+ */
+class AuthLoadTest {
+
+    private static final String PASSWORD = "load-test-password";
+
+    @Test
+    void mixedTrafficStaysWithinThresholds() throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        EmbeddedPostgres postgres = settings.jdbcUrl() == null ? EmbeddedPostgres.builder().start() : null;
+        String jdbcUrl = postgres != null ? postgres.getJdbcUrl("postgres", "postgres") : settings.jdbcUrl();
+
+        try (ConfigurableApplicationContext context = startAuthService(jdbcUrl, settings)) {
+            List<String> emails = seedUsers(context.getBean(UserService.class), settings.users());
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient httpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            AuthTraffic traffic = new AuthTraffic(httpClient, "http://localhost:" + port, emails, PASSWORD);
+
+            Instant startedAt = Instant.now();
+            Map<Operation, OperationStats> stats = new ArrivalRateDriver(traffic)
+                    .run(settings.rates(), settings.duration(), settings.warmup());
+
+            double measuredSeconds = settings.duration().minus(settings.warmup()).toMillis() / 1000.0;
+            Map<Operation, LoadReport.OperationResult> results = new EnumMap<>(Operation.class);
+            stats.forEach((operation, operationStats) -> results.put(operation, operationStats.toResult(measuredSeconds)));
+            LoadReport report = new LoadReport(startedAt, postgres != null ? "embedded" : jdbcUrl,
+                    settings.rates(), measuredSeconds, results);
+            report.write(settings.report());
+            System.out.println("Load test report: " + settings.report().toAbsolutePath());
+            System.out.println(Files.readString(settings.report()));
+
+            LoadReport baseline = settings.baseline() == null ? null : LoadReport.read(settings.baseline());
+            List<String> violations = report.violations(baseline, settings.maxRegression(), settings.maxErrorRate());
+            assertTrue(violations.isEmpty(), String.join("\n", violations));
+        } finally {
+            if (postgres != null) {
+                postgres.close();
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext startAuthService(String jdbcUrl, LoadTestSettings settings) {
+        return new SpringApplicationBuilder(AuthServiceApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.grpc.server.port=0",
+                        // Подписи проверяет тот же экземпляр, общий каталог ключей не нужен
+                        "jwt.signing.allow-ephemeral-keys=true",
+                        "spring.datasource.url=" + jdbcUrl,
+                        "spring.datasource.username=" + settings.jdbcUsername(),
+                        "spring.datasource.password=" + settings.jdbcPassword(),
+                        "spring.jpa.show-sql=false",
+                        // Весь трафик идёт с одного адреса; ограничение попыток входа исказило бы результат
+                        "login-throttle.enabled=false",
+                        "refresh-token.purge.enabled=false",
+                        "logging.level.com.ecommerce.platform=WARN"
+                )
+                .run();
+    }
+
+    private static List<String> seedUsers(UserService userService, int count) {
+        List<String> emails = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String email = "load-user-" + i + "@example.com";
+            userService.createUser(new AuthRequestDto(email, PASSWORD));
+            emails.add(email);
+        }
+        return emails;
+    }
+}
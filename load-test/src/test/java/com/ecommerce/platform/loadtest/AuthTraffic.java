@@ -0,0 +1,135 @@
+package com.ecommerce.platform.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * HTTP-запросы смешанной нагрузки. Выданные токены хранятся как сессии:
+ * login добавляет сессию, refresh заменяет её токены, logout удаляет,
+ * запрос к защищённому ресурсу использует access токен последней сессии.
+ */
+final class AuthTraffic {
+
+    // Защищённый ресурс auth-service: проходит JwtAuthenticationFilter и требует аутентификации
+    private static final String PROTECTED_PATH = "/actuator/metrics";
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient httpClient;
+    private final String baseUrl;
+    private final List<String> emails;
+    private final String password;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ConcurrentLinkedDeque<Session> sessions = new ConcurrentLinkedDeque<>();
+
+    private record Session(String accessToken, String refreshToken) {}
+
+    AuthTraffic(HttpClient httpClient, String baseUrl, List<String> emails, String password) {
+        this.httpClient = httpClient;
+        this.baseUrl = baseUrl;
+        this.emails = emails;
+        this.password = password;
+    }
+
+    /**
+     * Выполняет операцию и записывает латентность от запланированного момента
+     */
+    void execute(Operation operation, long scheduledNanos, OperationStats stats) {
+        try {
+            boolean success = switch (operation) {
+                case LOGIN -> login();
+                case REFRESH -> refresh();
+                case LOGOUT -> logout();
+                case PROTECTED -> callProtected();
+            };
+            if (success) {
+                stats.recordSuccess(System.nanoTime() - scheduledNanos);
+            }
+        } catch (SkippedException ex) {
+            stats.recordSkipped();
+        } catch (IOException | RuntimeException ex) {
+            stats.recordError(System.nanoTime() - scheduledNanos);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean login() throws IOException, InterruptedException {
+        String email = emails.get(ThreadLocalRandom.current().nextInt(emails.size()));
+        HttpResponse<String> response = post("/api/auth/login",
+                "{\"email\":\"" + email + "\",\"password\":\"" + password + "\"}");
+        requireSuccess(response);
+        sessions.addLast(toSession(response.body()));
+        return true;
+    }
+
+    private boolean refresh() throws IOException, InterruptedException {
+        Session session = sessions.pollFirst();
+        if (session == null) {
+            throw new SkippedException();
+        }
+        HttpResponse<String> response = post("/api/auth/refresh",
+                "{\"refreshToken\":\"" + session.refreshToken() + "\"}");
+        requireSuccess(response);
+        sessions.addLast(toSession(response.body()));
+        return true;
+    }
+
+    private boolean logout() throws IOException, InterruptedException {
+        Session session = sessions.pollFirst();
+        if (session == null) {
+            throw new SkippedException();
+        }
+        requireSuccess(post("/api/auth/logout", session.refreshToken()));
+        return true;
+    }
+
+    private boolean callProtected() throws IOException, InterruptedException {
+        Session session = sessions.peekLast();
+        if (session == null) {
+            throw new SkippedException();
+        }
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + PROTECTED_PATH))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Authorization", "Bearer " + session.accessToken())
+                .GET()
+                .build();
+        requireSuccess(httpClient.send(request, HttpResponse.BodyHandlers.ofString()));
+        return true;
+    }
+
+    private HttpResponse<String> post(String path, String body) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private Session toSession(String body) throws IOException {
+        JsonNode json = objectMapper.readTree(body);
+        return new Session(json.get("accessToken").asText(), json.get("refreshToken").asText());
+    }
+
+    private static void requireSuccess(HttpResponse<String> response) throws IOException {
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("Unexpected status " + response.statusCode() + " for " + response.uri());
+        }
+    }
+
+    private static final class SkippedException extends RuntimeException {
+        private SkippedException() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.ecommerce.platform.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Отчёт прогона: сохраняется в JSON и служит baseline для следующих прогонов
+ */
+record LoadReport(
+        Instant startedAt,
+        String database,
+        Map<Operation, Double> targetRates,
+        double measuredSeconds,
+        Map<Operation, OperationResult> operations
+) {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .enable(SerializationFeature.INDENT_OUTPUT);
+
+    record OperationResult(
+            long count,
+            long errors,
+            long skipped,
+            double throughputPerSecond,
+            double p50Millis,
+            double p99Millis,
+            double p999Millis,
+            double maxMillis
+    ) {
+        double errorRate() {
+            return count == 0 ? 0 : (double) errors / count;
+        }
+    }
+
+    void write(Path path) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        MAPPER.writeValue(path.toFile(), this);
+    }
+
+    static LoadReport read(Path path) throws IOException {
+        return MAPPER.readValue(path.toFile(), LoadReport.class);
+    }
+
+    /**
+     * Нарушения порогов: доля ошибок и, если задан baseline, ухудшение p99 и пропускной способности
+     */
+    List<String> violations(LoadReport baseline, double maxRegression, double maxErrorRate) {
+        List<String> violations = new ArrayList<>();
+        operations.forEach((operation, result) -> {
+            if (result.errorRate() > maxErrorRate) {
+                violations.add("%s error rate %.4f > %.4f".formatted(operation, result.errorRate(), maxErrorRate));
+            }
+            OperationResult previous = baseline == null ? null : baseline.operations().get(operation);
+            if (previous == null || previous.count() == 0) {
+                return;
+            }
+            if (result.p99Millis() > previous.p99Millis() * (1 + maxRegression)) {
+                violations.add("%s p99 %.2f ms > baseline %.2f ms + %.0f%%"
+                        .formatted(operation, result.p99Millis(), previous.p99Millis(), maxRegression * 100));
+            }
+            if (result.throughputPerSecond() < previous.throughputPerSecond() * (1 - maxRegression)) {
+                violations.add("%s throughput %.1f/s < baseline %.1f/s - %.0f%%".formatted(operation,
+                        result.throughputPerSecond(), previous.throughputPerSecond(), maxRegression * 100));
+            }
+        });
+        return violations;
+    }
+}
@@ -0,0 +1,65 @@
+package com.ecommerce.platform.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Параметры нагрузочного теста из системных свойств {@code loadtest.*}
+ *
+ * @param duration        длительность нагрузки, включая прогрев
+ * @param warmup          начальный интервал, не попадающий в отчёт
+ * @param users           количество заранее созданных пользователей
+ * @param rates           частота запросов в секунду по операциям
+ * @param jdbcUrl         внешняя БД вместо встроенного Postgres, может быть null
+ * @param jdbcUsername    пользователь внешней БД
+ * @param jdbcPassword    пароль внешней БД
+ * @param report          путь к файлу отчёта
+ * @param baseline        отчёт предыдущего прогона для сравнения, может быть null
+ * @param maxRegression   допустимое ухудшение p99 и пропускной способности относительно baseline (0.2 = 20%)
+ * @param maxErrorRate    допустимая доля ошибок по каждой операции
+ */
+record LoadTestSettings(
+        Duration duration,
+        Duration warmup,
+        int users,
+        Map<Operation, Double> rates,
+        String jdbcUrl,
+        String jdbcUsername,
+        String jdbcPassword,
+        Path report,
+        Path baseline,
+        double maxRegression,
+        double maxErrorRate
+) {
+
+    static LoadTestSettings fromSystemProperties() {
+        Map<Operation, Double> rates = new EnumMap<>(Operation.class);
+        rates.put(Operation.LOGIN, doubleProperty("loadtest.rate.login", 5));
+        rates.put(Operation.REFRESH, doubleProperty("loadtest.rate.refresh", 20));
+        rates.put(Operation.LOGOUT, doubleProperty("loadtest.rate.logout", 2));
+        rates.put(Operation.PROTECTED, doubleProperty("loadtest.rate.protected", 50));
+        String baseline = System.getProperty("loadtest.baseline");
+        return new LoadTestSettings(
+                DurationStyle.detectAndParse(System.getProperty("loadtest.duration", "60s")),
+                DurationStyle.detectAndParse(System.getProperty("loadtest.warmup", "10s")),
+                Integer.parseInt(System.getProperty("loadtest.users", "50")),
+                rates,
+                System.getProperty("loadtest.jdbc-url"),
+                System.getProperty("loadtest.jdbc-username", "postgres"),
+                System.getProperty("loadtest.jdbc-password", "postgres"),
+                Path.of(System.getProperty("loadtest.report", "target/load-test-report.json")),
+                baseline == null || baseline.isBlank() ? null : Path.of(baseline),
+                doubleProperty("loadtest.max-regression", 0.2),
+                doubleProperty("loadtest.max-error-rate", 0.01)
+        );
+    }
+
+    private static double doubleProperty(String name, double defaultValue) {
+        String value = System.getProperty(name);
+        return value == null || value.isBlank() ? defaultValue : Double.parseDouble(value);
+    }
+}
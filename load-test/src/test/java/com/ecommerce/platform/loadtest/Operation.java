@@ -0,0 +1,14 @@
+package com.ecommerce.platform.loadtest;
+
+/**
+ * Виды запросов в смешанной нагрузке
+ */
+enum Operation {
+    LOGIN,
+    REFRESH,
+    LOGOUT,
+    /**
+     * Запрос к защищённому ресурсу с access токеном, проходящий через JwtAuthenticationFilter
+     */
+    PROTECTED
+}
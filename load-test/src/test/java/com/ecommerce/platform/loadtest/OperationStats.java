@@ -0,0 +1,54 @@
+package com.ecommerce.platform.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Латентность и счётчики одной операции. Латентность отсчитывается от запланированного
+ * момента отправки, поэтому отставание генератора нагрузки тоже попадает в гистограмму.
+ */
+final class OperationStats {
+
+    private static final long MAX_LATENCY_NANOS = TimeUnit.MINUTES.toNanos(2);
+
+    private final Histogram latency = new ConcurrentHistogram(MAX_LATENCY_NANOS, 3);
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+
+    void recordSuccess(long latencyNanos) {
+        latency.recordValue(Math.min(latencyNanos, MAX_LATENCY_NANOS));
+    }
+
+    void recordError(long latencyNanos) {
+        recordSuccess(latencyNanos);
+        errors.increment();
+    }
+
+    /**
+     * Запрос не отправлен: нет подходящей сессии (например, refresh до первого login)
+     */
+    void recordSkipped() {
+        skipped.increment();
+    }
+
+    LoadReport.OperationResult toResult(double measuredSeconds) {
+        long count = latency.getTotalCount();
+        return new LoadReport.OperationResult(
+                count,
+                errors.sum(),
+                skipped.sum(),
+                count / measuredSeconds,
+                millis(latency.getValueAtPercentile(50)),
+                millis(latency.getValueAtPercentile(99)),
+                millis(latency.getValueAtPercentile(99.9)),
+                millis(latency.getMaxValue())
+        );
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,48 @@
+package com.ecommerce.platform.orderservice.config;
+
+import com.ecommerce.platform.orderservice.engine.PartitionedEventProcessor;
+import com.ecommerce.platform.orderservice.model.OrderEvent;
+import com.ecommerce.platform.orderservice.service.OrderEventHandler;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "order-processor")
+public class OrderProcessorConfig {
+
+    /**
+     * Количество партиций; 0 — по числу доступных ядер
+     */
+    private int partitions = 0;
+
+    /**
+     * Ёмкость очереди одной партиции
+     */
+    private int queueCapacity = 1024;
+
+    /**
+     * Сколько приёмный API ждёт места в заполненной очереди, прежде чем ответить 503
+     */
+    private Duration offerTimeout = Duration.ofMillis(50);
+
+    /**
+     * Время на дообработку принятых событий при остановке
+     */
+    private Duration shutdownTimeout = Duration.ofSeconds(10);
+
+    @Bean(initMethod = "start")
+    public PartitionedEventProcessor<String, OrderEvent> orderEventProcessor(OrderEventHandler handler,
+                                                                            MeterRegistry meterRegistry) {
+        int count = partitions > 0 ? partitions : Runtime.getRuntime().availableProcessors();
+        PartitionedEventProcessor<String, OrderEvent> processor =
+                new PartitionedEventProcessor<>("orders", count, queueCapacity, handler, meterRegistry);
+        processor.setShutdownTimeout(shutdownTimeout);
+        return processor;
+    }
+}
@@ -0,0 +1,44 @@
+package com.ecommerce.platform.orderservice.controller;
+
+import com.ecommerce.platform.orderservice.dto.OrderEventRequest;
+import com.ecommerce.platform.orderservice.exception.OrderNotFoundException;
+import com.ecommerce.platform.orderservice.model.Order;
+import com.ecommerce.platform.orderservice.model.OrderEvent;
+import com.ecommerce.platform.orderservice.service.OrderService;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Instant;
+
+@RestController
+@RequestMapping("/api/orders")
+public class OrderController {
+
+    private final OrderService orderService;
+
+    public OrderController(OrderService orderService) {
+        this.orderService = orderService;
+    }
+
+    /**
+     * Принимает событие заказа: 202 — событие в очереди, 503 с Retry-After — очередь заполнена
+     */
+    @PostMapping("/{orderId}/events")
+    public ResponseEntity<Void> submitEvent(@PathVariable String orderId,
+                                            @Valid @RequestBody OrderEventRequest request) {
+        orderService.submit(new OrderEvent(orderId, request.type(), request.amount(), Instant.now()));
+        return ResponseEntity.accepted().build();
+    }
+
+    @GetMapping("/{orderId}")
+    public ResponseEntity<Order> getOrder(@PathVariable String orderId) {
+        return ResponseEntity.ok(orderService.findOrder(orderId)
+                .orElseThrow(() -> new OrderNotFoundException("Order not found")));
+    }
+}
@@ -0,0 +1,12 @@
+package com.ecommerce.platform.orderservice.dto;
+
+import com.ecommerce.platform.orderservice.model.OrderEventType;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+
+import java.math.BigDecimal;
+
+public record OrderEventRequest(
+        @NotNull OrderEventType type,
+        @PositiveOrZero BigDecimal amount
+) {}
@@ -0,0 +1,14 @@
+package com.ecommerce.platform.orderservice.engine;
+
+/**
+ * Обработчик событий одного ключа. Для каждого ключа вызывается из одного потока
+ * и строго в порядке поступления событий, поэтому состояние ключа не требует блокировок.
+ *
+ * @param <K> ключ упорядочивания
+ * @param <E> событие
+ */
+@FunctionalInterface
+public interface EventHandler<K, E> {
+
+    void handle(K key, E event);
+}
@@ -0,0 +1,247 @@
+package com.ecommerce.platform.orderservice.engine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Обработчик событий, разбитый на партиции по ключу.
+ * <p>
+ * Ключ всегда попадает в одну и ту же партицию, у каждой партиции один поток и своя
+ * ограниченная очередь: события одного ключа обрабатываются строго по порядку,
+ * разные ключи — параллельно в разных партициях. Партиции не делят ни очередь,
+ * ни блокировку, поэтому пропускная способность растёт с их числом до числа ядер.
+ * <p>
+ * Переполненная очередь не блокирует вызывающего дольше заданного таймаута: {@link #offer}
+ * возвращает false, и приёмный API отвечает отказом (backpressure). При остановке
+ * приём прекращается, остановка ждёт вызовы offer, уже прошедшие проверку приёма,
+ * и только затем потоки партиций дообрабатывают очереди и завершаются.
+ * <p>
+ * Метрики: {@code event.processor.events{processor, outcome}},
+ * {@code event.processor.queue.size{processor, partition}}.
+ *
+ * @param <K> ключ упорядочивания
+ * @param <E> событие
+ */
+@Slf4j
+public class PartitionedEventProcessor<K, E> implements AutoCloseable {
+
+    private static final int MAX_DRAIN = 64;
+    private static final long POLL_TIMEOUT_MS = 100;
+    // Счётчики offer разных партиций разнесены на 64 байта, чтобы не делить строку кэша
+    private static final int OFFERING_STRIDE = 16;
+
+    private final String name;
+    private final EventHandler<K, E> handler;
+    private final List<BlockingQueue<Envelope<K, E>>> queues;
+    private final List<Thread> workers;
+    /**
+     * Вызовы offer, которые сейчас кладут событие в очередь: счётчик партиции i в ячейке i * OFFERING_STRIDE
+     */
+    private final AtomicIntegerArray offering;
+    private final Counter processedCounter;
+    private final Counter rejectedCounter;
+    private final Counter failedCounter;
+    private Duration shutdownTimeout = Duration.ofSeconds(10);
+    private volatile boolean accepting;
+    private volatile boolean running;
+
+    public PartitionedEventProcessor(String name, int partitions, int queueCapacity,
+                                     EventHandler<K, E> handler, MeterRegistry meterRegistry) {
+        if (partitions < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("Partitions and queue capacity must be positive");
+        }
+        this.name = name;
+        this.handler = handler;
+        this.queues = new ArrayList<>(partitions);
+        this.workers = new ArrayList<>(partitions);
+        this.offering = new AtomicIntegerArray(partitions * OFFERING_STRIDE);
+        for (int i = 0; i < partitions; i++) {
+            BlockingQueue<Envelope<K, E>> queue = new ArrayBlockingQueue<>(queueCapacity);
+            queues.add(queue);
+            Gauge.builder("event.processor.queue.size", queue, BlockingQueue::size)
+                    .description("Events waiting in a partition queue")
+                    .tag("processor", name)
+                    .tag("partition", String.valueOf(i))
+                    .register(meterRegistry);
+        }
+        this.processedCounter = eventsCounter(meterRegistry, "processed");
+        this.rejectedCounter = eventsCounter(meterRegistry, "rejected");
+        this.failedCounter = eventsCounter(meterRegistry, "failed");
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        accepting = true;
+        for (int i = 0; i < queues.size(); i++) {
+            BlockingQueue<Envelope<K, E>> queue = queues.get(i);
+            workers.add(Thread.ofPlatform()
+                    .name(name + "-partition-" + i)
+                    .start(() -> work(queue)));
+        }
+        log.info("Event processor {} started with {} partitions", name, queues.size());
+    }
+
+    /**
+     * Ставит событие в очередь партиции ключа без ожидания
+     * @return false, если очередь партиции заполнена или процессор остановлен
+     */
+    public boolean offer(K key, E event) {
+        int partition = partitionOf(key);
+        offering.incrementAndGet(partition * OFFERING_STRIDE);
+        try {
+            boolean accepted = accepting && queues.get(partition).offer(new Envelope<>(key, event));
+            if (!accepted) {
+                rejectedCounter.increment();
+            }
+            return accepted;
+        } finally {
+            offering.decrementAndGet(partition * OFFERING_STRIDE);
+        }
+    }
+
+    /**
+     * Ставит событие в очередь, ожидая освобождения места не дольше timeout
+     * @return false, если место не освободилось или процессор остановлен
+     */
+    public boolean offer(K key, E event, Duration timeout) throws InterruptedException {
+        if (timeout.isZero()) {
+            return offer(key, event);
+        }
+        int partition = partitionOf(key);
+        offering.incrementAndGet(partition * OFFERING_STRIDE);
+        try {
+            boolean accepted = accepting && queues.get(partition)
+                    .offer(new Envelope<>(key, event), timeout.toNanos(), TimeUnit.NANOSECONDS);
+            if (!accepted) {
+                rejectedCounter.increment();
+            }
+            return accepted;
+        } finally {
+            offering.decrementAndGet(partition * OFFERING_STRIDE);
+        }
+    }
+
+    public int partitionOf(K key) {
+        int h = key.hashCode();
+        return Math.floorMod(h ^ (h >>> 16), queues.size());
+    }
+
+    public int partitions() {
+        return queues.size();
+    }
+
+    /**
+     * Количество событий, ожидающих обработки во всех партициях
+     */
+    public int backlog() {
+        int total = 0;
+        for (BlockingQueue<Envelope<K, E>> queue : queues) {
+            total += queue.size();
+        }
+        return total;
+    }
+
+    /**
+     * Прекращает приём и ждёт, пока партиции обработают принятые события.
+     * <p>
+     * Вызов offer увеличивает счётчик партиции до проверки {@code accepting}, остановка сбрасывает
+     * {@code accepting} до чтения счётчиков: либо offer увидит остановку, либо остановка увидит
+     * его в счётчике и дождётся, пока событие окажется в очереди. Потоки партиций
+     * останавливаются только после этого, поэтому принятое событие не остаётся в очереди без потока.
+     * @return true, если все события обработаны до истечения timeout
+     */
+    public boolean shutdown(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        accepting = false;
+        awaitOffers(deadline);
+        running = false;
+        for (Thread worker : workers) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining > 0) {
+                worker.join(Duration.ofNanos(remaining));
+            }
+        }
+        boolean drained = backlog() == 0 && workers.stream().noneMatch(Thread::isAlive);
+        if (!drained) {
+            workers.forEach(Thread::interrupt);
+            log.warn("Event processor {} stopped with {} unprocessed events", name, backlog());
+        }
+        return drained;
+    }
+
+    /**
+     * Ждёт завершения вызовов offer, начатых до остановки приёма. Ожидание короткое:
+     * потоки партиций ещё работают и освобождают место для offer с таймаутом
+     */
+    private void awaitOffers(long deadline) throws InterruptedException {
+        for (int i = 0; i < offering.length(); i += OFFERING_STRIDE) {
+            while (offering.get(i) > 0 && deadline - System.nanoTime() > 0) {
+                Thread.sleep(1);
+            }
+        }
+    }
+
+    public void setShutdownTimeout(Duration shutdownTimeout) {
+        this.shutdownTimeout = shutdownTimeout;
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        shutdown(shutdownTimeout);
+    }
+
+    private void work(BlockingQueue<Envelope<K, E>> queue) {
+        List<Envelope<K, E>> batch = new ArrayList<>(MAX_DRAIN);
+        try {
+            while (running || !queue.isEmpty()) {
+                Envelope<K, E> first = queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                handle(first);
+                // Забираем накопившееся одним захватом блокировки очереди
+                queue.drainTo(batch, MAX_DRAIN);
+                for (Envelope<K, E> envelope : batch) {
+                    handle(envelope);
+                }
+                batch.clear();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void handle(Envelope<K, E> envelope) {
+        try {
+            handler.handle(envelope.key(), envelope.event());
+            processedCounter.increment();
+        } catch (RuntimeException ex) {
+            // Ошибка одного события не останавливает партицию
+            failedCounter.increment();
+            log.error("Event processor {} failed to handle event for key {}", name, envelope.key(), ex);
+        }
+    }
+
+    private Counter eventsCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("event.processor.events")
+                .description("Events by processing outcome")
+                .tag("processor", name)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private record Envelope<K, E>(K key, E event) {}
+}
@@ -0,0 +1,7 @@
+package com.ecommerce.platform.orderservice.exception;
+
+public abstract class BusinessException extends RuntimeException {
+    public BusinessException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.ecommerce.platform.orderservice.exception;
+
+public class OrderNotFoundException extends BusinessException {
+    public OrderNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.ecommerce.platform.orderservice.exception;
+
+public class ServiceOverloadedException extends BusinessException {
+    public ServiceOverloadedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,21 @@
+package com.ecommerce.platform.orderservice.model;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Неизменяемый снимок состояния заказа
+ *
+ * @param orderId   идентификатор заказа
+ * @param status    текущий статус
+ * @param amount    сумма заказа
+ * @param version   количество применённых событий
+ * @param updatedAt время применения последнего события
+ */
+public record Order(
+        String orderId,
+        OrderStatus status,
+        BigDecimal amount,
+        long version,
+        Instant updatedAt
+) {}
@@ -0,0 +1,19 @@
+package com.ecommerce.platform.orderservice.model;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Событие заказа, принятое приёмным API
+ *
+ * @param orderId    идентификатор заказа (ключ упорядочивания)
+ * @param type       тип события
+ * @param amount     сумма заказа, задаётся при создании
+ * @param receivedAt время приёма события
+ */
+public record OrderEvent(
+        String orderId,
+        OrderEventType type,
+        BigDecimal amount,
+        Instant receivedAt
+) {}
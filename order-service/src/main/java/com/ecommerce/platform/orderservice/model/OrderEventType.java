@@ -0,0 +1,11 @@
+package com.ecommerce.platform.orderservice.model;
+
+/**
+ * Типы событий жизненного цикла заказа
+ */
+public enum OrderEventType {
+    CREATED,
+    PAID,
+    SHIPPED,
+    CANCELLED
+}
@@ -0,0 +1,20 @@
+package com.ecommerce.platform.orderservice.model;
+
+public enum OrderStatus {
+    CREATED,
+    PAID,
+    SHIPPED,
+    CANCELLED;
+
+    /**
+     * Статус после события или null, если переход недопустим
+     */
+    public static OrderStatus after(OrderStatus current, OrderEventType event) {
+        return switch (event) {
+            case CREATED -> current == null ? CREATED : null;
+            case PAID -> current == CREATED ? PAID : null;
+            case SHIPPED -> current == PAID ? SHIPPED : null;
+            case CANCELLED -> current == CREATED || current == PAID ? CANCELLED : null;
+        };
+    }
+}
@@ -0,0 +1,50 @@
+package com.ecommerce.platform.orderservice.service;
+
+import com.ecommerce.platform.orderservice.engine.EventHandler;
+import com.ecommerce.platform.orderservice.model.Order;
+import com.ecommerce.platform.orderservice.model.OrderEvent;
+import com.ecommerce.platform.orderservice.model.OrderStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * Применяет события к состоянию заказа. Все события заказа приходят из одной партиции,
+ * поэтому чтение и запись состояния заказа не пересекаются с другими потоками.
+ */
+@Slf4j
+@Component
+public class OrderEventHandler implements EventHandler<String, OrderEvent> {
+
+    private final OrderStore orderStore;
+    private final Counter rejectedTransitions;
+
+    public OrderEventHandler(OrderStore orderStore, MeterRegistry meterRegistry) {
+        this.orderStore = orderStore;
+        this.rejectedTransitions = Counter.builder("orders.transitions.rejected")
+                .description("Events that do not apply to the current order status")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void handle(String orderId, OrderEvent event) {
+        Order current = orderStore.get(orderId);
+        OrderStatus currentStatus = current == null ? null : current.status();
+        OrderStatus next = OrderStatus.after(currentStatus, event.type());
+        if (next == null) {
+            rejectedTransitions.increment();
+            log.warn("Order {}: event {} is not allowed in status {}", orderId, event.type(), currentStatus);
+            return;
+        }
+        orderStore.put(new Order(
+                orderId,
+                next,
+                current == null ? event.amount() : current.amount(),
+                current == null ? 1 : current.version() + 1,
+                Instant.now()
+        ));
+    }
+}
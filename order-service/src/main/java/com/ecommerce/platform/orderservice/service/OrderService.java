@@ -0,0 +1,24 @@
+package com.ecommerce.platform.orderservice.service;
+
+import com.ecommerce.platform.orderservice.exception.ServiceOverloadedException;
+import com.ecommerce.platform.orderservice.model.Order;
+import com.ecommerce.platform.orderservice.model.OrderEvent;
+
+import java.util.Optional;
+
+public interface OrderService {
+
+    /**
+     * Принимает событие заказа к асинхронной обработке
+     * @param event событие
+     * @throws ServiceOverloadedException если очередь партиции заказа заполнена
+     */
+    void submit(OrderEvent event);
+
+    /**
+     * Текущее состояние заказа (с учётом уже обработанных событий)
+     * @param orderId идентификатор заказа
+     * @return Optional с заказом или empty, если заказ ещё не создан
+     */
+    Optional<Order> findOrder(String orderId);
+}
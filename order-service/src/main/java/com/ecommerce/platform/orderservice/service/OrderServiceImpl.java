@@ -0,0 +1,42 @@
+package com.ecommerce.platform.orderservice.service;
+
+import com.ecommerce.platform.orderservice.config.OrderProcessorConfig;
+import com.ecommerce.platform.orderservice.engine.PartitionedEventProcessor;
+import com.ecommerce.platform.orderservice.exception.ServiceOverloadedException;
+import com.ecommerce.platform.orderservice.model.Order;
+import com.ecommerce.platform.orderservice.model.OrderEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderServiceImpl implements OrderService {
+
+    private final PartitionedEventProcessor<String, OrderEvent> orderEventProcessor;
+    private final OrderProcessorConfig orderProcessorConfig;
+    private final OrderStore orderStore;
+
+    @Override
+    public void submit(OrderEvent event) {
+        boolean accepted;
+        try {
+            accepted = orderEventProcessor.offer(event.orderId(), event, orderProcessorConfig.getOfferTimeout());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            accepted = false;
+        }
+        if (!accepted) {
+            log.warn("Order event rejected, partition queue is full: {}", event.orderId());
+            throw new ServiceOverloadedException("Order processing is overloaded, retry later");
+        }
+    }
+
+    @Override
+    public Optional<Order> findOrder(String orderId) {
+        return Optional.ofNullable(orderStore.get(orderId));
+    }
+}
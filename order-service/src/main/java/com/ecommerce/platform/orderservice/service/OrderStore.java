@@ -0,0 +1,25 @@
+package com.ecommerce.platform.orderservice.service;
+
+import com.ecommerce.platform.orderservice.model.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Текущее состояние заказов в памяти. Запись выполняет только партиция заказа,
+ * чтение — любые потоки приёмного API.
+ */
+@Component
+public class OrderStore {
+
+    private final ConcurrentMap<String, Order> orders = new ConcurrentHashMap<>();
+
+    public Order get(String orderId) {
+        return orders.get(orderId);
+    }
+
+    public void put(Order order) {
+        orders.put(order.orderId(), order);
+    }
+}
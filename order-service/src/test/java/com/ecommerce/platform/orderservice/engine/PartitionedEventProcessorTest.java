@@ -0,0 +1,131 @@
+package com.ecommerce.platform.orderservice.engine;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PartitionedEventProcessorTest {
+
+    @Test
+    void eventsOfOneKeyAreHandledInSubmissionOrder() throws Exception {
+        int keys = 64;
+        int eventsPerKey = 500;
+        Map<Integer, List<Integer>> handled = new ConcurrentHashMap<>();
+        Map<Integer, Set<String>> threads = new ConcurrentHashMap<>();
+        PartitionedEventProcessor<Integer, Integer> processor = new PartitionedEventProcessor<>(
+                "test", 4, 128, (key, event) -> {
+                    handled.computeIfAbsent(key, k -> new ArrayList<>()).add(event);
+                    threads.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(Thread.currentThread().getName());
+                }, new SimpleMeterRegistry());
+        processor.start();
+
+        // Каждый производитель пишет свою группу ключей, события разных ключей перемешаны
+        ExecutorService producers = Executors.newFixedThreadPool(4);
+        CountDownLatch done = new CountDownLatch(4);
+        for (int p = 0; p < 4; p++) {
+            int producer = p;
+            producers.execute(() -> {
+                try {
+                    for (int seq = 0; seq < eventsPerKey; seq++) {
+                        for (int key = producer; key < keys; key += 4) {
+                            assertTrue(processor.offer(key, seq, Duration.ofSeconds(5)));
+                        }
+                    }
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+        producers.shutdown();
+        assertTrue(processor.shutdown(Duration.ofSeconds(30)));
+
+        assertEquals(keys, handled.size());
+        threads.values().forEach(names -> assertEquals(1, names.size()));
+        for (List<Integer> events : handled.values()) {
+            assertEquals(eventsPerKey, events.size());
+            for (int i = 0; i < eventsPerKey; i++) {
+                assertEquals(i, events.get(i));
+            }
+        }
+    }
+
+    @Test
+    void fullPartitionRejectsWithoutBlocking() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        PartitionedEventProcessor<String, Integer> processor = new PartitionedEventProcessor<>(
+                "test", 1, 2, (key, event) -> {
+                    try {
+                        release.await();
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                }, new SimpleMeterRegistry());
+        processor.start();
+
+        assertTrue(processor.offer("order", 0));
+        // Первое событие может быть уже взято потоком партиции; очередь на 2 места заполняется
+        while (processor.offer("order", 1)) {
+            if (processor.backlog() > 2) {
+                fail("Queue grew beyond capacity");
+            }
+        }
+        assertFalse(processor.offer("order", 2, Duration.ofMillis(20)));
+
+        release.countDown();
+        assertTrue(processor.shutdown(Duration.ofSeconds(5)));
+    }
+
+    @Test
+    void everyAcceptedEventIsHandledWhenShutdownRacesWithOffers() throws Exception {
+        for (int round = 0; round < 20; round++) {
+            AtomicInteger handled = new AtomicInteger();
+            PartitionedEventProcessor<Integer, Integer> processor = new PartitionedEventProcessor<>(
+                    "test", 4, 1024, (key, event) -> handled.incrementAndGet(), new SimpleMeterRegistry());
+            processor.start();
+
+            int producerCount = 8;
+            AtomicInteger accepted = new AtomicInteger();
+            AtomicBoolean stopping = new AtomicBoolean();
+            CountDownLatch started = new CountDownLatch(producerCount);
+            ExecutorService producers = Executors.newFixedThreadPool(producerCount);
+            for (int p = 0; p < producerCount; p++) {
+                int producer = p;
+                producers.execute(() -> {
+                    started.countDown();
+                    // Производитель пишет, пока процессор не перестанет принимать после начала остановки
+                    for (int seq = 0; ; seq++) {
+                        if (processor.offer(producer * 1_000_000 + seq, seq)) {
+                            accepted.incrementAndGet();
+                        } else if (stopping.get()) {
+                            return;
+                        }
+                    }
+                });
+            }
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            stopping.set(true);
+            assertTrue(processor.shutdown(Duration.ofSeconds(10)));
+            producers.shutdown();
+            assertTrue(producers.awaitTermination(5, TimeUnit.SECONDS));
+
+            assertEquals(accepted.get(), handled.get(), "round " + round);
+        }
+    }
+}
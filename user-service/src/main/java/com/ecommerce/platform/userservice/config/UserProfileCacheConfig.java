@@ -0,0 +1,34 @@
+package com.ecommerce.platform.userservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "user-profile-cache")
+public class UserProfileCacheConfig {
+
+    /**
+     * Максимальное количество закэшированных id (найденных и отсутствующих)
+     */
+    private long maximumSize = 100_000;
+
+    /**
+     * Время жизни найденного профиля
+     */
+    private Duration ttl = Duration.ofMinutes(10);
+
+    /**
+     * Время жизни отметки "профиля нет"; короче ttl, чтобы новый профиль появился быстро
+     * и на другом экземпляре, который не видел его создания
+     */
+    private Duration negativeTtl = Duration.ofSeconds(30);
+
+    /**
+     * Максимум id в одном запросе IN к БД; большие пакеты делятся на части
+     */
+    private int queryBatchSize = 500;
+}
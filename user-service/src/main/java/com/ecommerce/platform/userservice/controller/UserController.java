@@ -0,0 +1,85 @@
+package com.ecommerce.platform.userservice.controller;
+
+import com.ecommerce.platform.userservice.dto.BulkUserRequest;
+import com.ecommerce.platform.userservice.dto.BulkUserResponse;
+import com.ecommerce.platform.userservice.dto.UserProfileDto;
+import com.ecommerce.platform.userservice.dto.UserProfileRequest;
+import com.ecommerce.platform.userservice.exception.ProfileAccessDeniedException;
+import com.ecommerce.platform.userservice.service.UserService;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/users")
+public class UserController {
+
+    static final String USER_ID_HEADER = "X-Auth-User-Id";
+    static final String ROLES_HEADER = "X-Auth-Roles";
+    static final String ADMIN_ROLE = "ROLE_ADMIN";
+
+    private final UserService userService;
+
+    public UserController(UserService userService) {
+        this.userService = userService;
+    }
+
+    /**
+     * Профиль с email и телефоном читает только его владелец или администратор.
+     * Пользователя и роли выставляет api-gateway по проверенному токену (X-Auth-User-Id,
+     * X-Auth-Roles), из внешних запросов эти заголовки удаляются
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<UserProfileDto> getUser(@PathVariable Long id,
+                                                  @RequestHeader(value = USER_ID_HEADER, required = false) Long authUserId,
+                                                  @RequestHeader(value = ROLES_HEADER, required = false) String authRoles) {
+        requireOwnerOrAdmin(id, authUserId, authRoles, "read");
+        return ResponseEntity.ok(userService.getUser(id));
+    }
+
+    /**
+     * Имена до 1000 пользователей за один вызов, например для списка заказов; email и телефон
+     * не возвращаются. POST, потому что сотни id не помещаются в строку запроса
+     */
+    @PostMapping("/by-ids")
+    public ResponseEntity<BulkUserResponse> getUsers(@Valid @RequestBody BulkUserRequest request) {
+        return ResponseEntity.ok(userService.getUsers(request.ids()));
+    }
+
+    /**
+     * Профиль меняет только его владелец или администратор
+     */
+    @PutMapping("/{id}")
+    public ResponseEntity<UserProfileDto> saveUser(@PathVariable Long id,
+                                                   @Valid @RequestBody UserProfileRequest request,
+                                                   @RequestHeader(value = USER_ID_HEADER, required = false) Long authUserId,
+                                                   @RequestHeader(value = ROLES_HEADER, required = false) String authRoles) {
+        requireOwnerOrAdmin(id, authUserId, authRoles, "modify");
+        return ResponseEntity.ok(userService.saveUser(id, request));
+    }
+
+    private static void requireOwnerOrAdmin(Long id, Long authUserId, String authRoles, String action) {
+        if (!id.equals(authUserId) && !hasRole(authRoles, ADMIN_ROLE)) {
+            throw new ProfileAccessDeniedException("Not allowed to " + action + " user profile " + id);
+        }
+    }
+
+    private static boolean hasRole(String roles, String role) {
+        if (roles == null) {
+            return false;
+        }
+        for (String granted : roles.split(",")) {
+            if (granted.trim().equals(role)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,14 @@
+package com.ecommerce.platform.userservice.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * @param ids идентификаторы пользователей; повторы допускаются и загружаются один раз
+ */
+public record BulkUserRequest(
+        @NotEmpty @Size(max = 1000) List<@NotNull Long> ids
+) {}
@@ -0,0 +1,12 @@
+package com.ecommerce.platform.userservice.dto;
+
+import java.util.List;
+
+/**
+ * @param users      публичная часть найденных профилей в порядке первого появления id в запросе
+ * @param missingIds id, для которых профиля нет
+ */
+public record BulkUserResponse(
+        List<UserSummaryDto> users,
+        List<Long> missingIds
+) {}
@@ -0,0 +1,16 @@
+package com.ecommerce.platform.userservice.dto;
+
+import com.ecommerce.platform.userservice.model.UserProfile;
+
+public record UserProfileDto(
+        Long id,
+        String email,
+        String firstName,
+        String lastName,
+        String phone
+) {
+    public static UserProfileDto from(UserProfile profile) {
+        return new UserProfileDto(profile.getId(), profile.getEmail(), profile.getFirstName(),
+                profile.getLastName(), profile.getPhone());
+    }
+}
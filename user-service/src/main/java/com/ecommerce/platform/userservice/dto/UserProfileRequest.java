@@ -0,0 +1,12 @@
+package com.ecommerce.platform.userservice.dto;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+public record UserProfileRequest(
+        @NotBlank @Email String email,
+        @Size(max = 100) String firstName,
+        @Size(max = 100) String lastName,
+        @Size(max = 32) String phone
+) {}
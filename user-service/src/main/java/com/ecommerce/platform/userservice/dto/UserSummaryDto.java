@@ -0,0 +1,14 @@
+package com.ecommerce.platform.userservice.dto;
+
+/**
+ * Публичная часть профиля для списков (например, имена в списке заказов): без email и телефона
+ */
+public record UserSummaryDto(
+        Long id,
+        String firstName,
+        String lastName
+) {
+    public static UserSummaryDto from(UserProfileDto profile) {
+        return new UserSummaryDto(profile.id(), profile.firstName(), profile.lastName());
+    }
+}
@@ -0,0 +1,7 @@
+package com.ecommerce.platform.userservice.exception;
+
+public class ProfileAccessDeniedException extends BusinessException {
+    public ProfileAccessDeniedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.ecommerce.platform.userservice.exception;
+
+public class UserNotFoundException extends BusinessException {
+    public UserNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,20 @@
+package com.ecommerce.platform.userservice.repository;
+
+import com.ecommerce.platform.userservice.model.UserProfile;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface UserProfileRepository extends JpaRepository<UserProfile, Long> {
+
+    /**
+     * Загружает профили одним запросом по первичному ключу
+     * @param ids идентификаторы
+     * @return найденные профили в произвольном порядке; отсутствующие id пропускаются
+     */
+    @Query("SELECT p FROM UserProfile p WHERE p.id IN :ids")
+    List<UserProfile> findByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,171 @@
+package com.ecommerce.platform.userservice.service;
+
+import com.ecommerce.platform.userservice.config.UserProfileCacheConfig;
+import com.ecommerce.platform.userservice.dto.UserProfileDto;
+import com.ecommerce.platform.userservice.model.UserProfile;
+import com.ecommerce.platform.userservice.repository.UserProfileRepository;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Read-through кэш профилей перед UserProfileRepository. Метрики cache.* с тегом cache=user.profiles.
+ * <p>
+ * Промахи пакета загружаются одним запросом {@code WHERE id IN (...)}. Отсутствующие id кэшируются
+ * как {@link Optional#empty()} на {@code negative-ttl}, чтобы повторные запросы несуществующих
+ * пользователей не доходили до БД.
+ * <p>
+ * Caffeine кладёт в кэш незавершённые future для всех промахов до запуска загрузки, поэтому
+ * параллельный запрос того же id ждёт уже идущую загрузку, а не делает свой запрос. Загрузка
+ * выполняется в вызывающем потоке, вне блокировок кэша.
+ */
+@Slf4j
+@Component
+public class UserProfileCache {
+
+    static final String CACHE_NAME = "user.profiles";
+
+    private final AsyncLoadingCache<Long, Optional<UserProfileDto>> cache;
+    private final UserProfileRepository repository;
+    private final int queryBatchSize;
+    private final DistributionSummary queryIds;
+
+    public UserProfileCache(UserProfileCacheConfig config, UserProfileRepository repository,
+                            MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.queryBatchSize = config.getQueryBatchSize();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .expireAfter(expiry(config.getTtl().toNanos(), config.getNegativeTtl().toNanos()))
+                .executor(Runnable::run)
+                .recordStats()
+                .buildAsync(new CacheLoader<Long, Optional<UserProfileDto>>() {
+                    @Override
+                    public Optional<UserProfileDto> load(Long id) {
+                        return loadAll(Set.of(id)).get(id);
+                    }
+
+                    @Override
+                    public Map<Long, Optional<UserProfileDto>> loadAll(Set<? extends Long> ids) {
+                        return fetch(ids);
+                    }
+                });
+        this.queryIds = DistributionSummary.builder("user.profiles.query.ids")
+                .description("Ids requested from the database per query")
+                .register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * @param id идентификатор пользователя
+     * @return профиль или empty, если его нет
+     */
+    public Optional<UserProfileDto> get(Long id) {
+        return join(() -> cache.get(id).join());
+    }
+
+    /**
+     * @param ids идентификаторы пользователей без повторов
+     * @return значение для каждого id: профиль или empty, если его нет
+     */
+    public Map<Long, Optional<UserProfileDto>> getAll(Collection<Long> ids) {
+        return join(() -> cache.getAll(ids).join());
+    }
+
+    /**
+     * Удаляет профиль из кэша сразу и повторно после коммита текущей транзакции,
+     * чтобы параллельное чтение не вернуло в кэш незакоммиченное старое состояние
+     * @param id идентификатор пользователя
+     */
+    public void evict(Long id) {
+        cache.synchronous().invalidate(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.synchronous().invalidate(id);
+                }
+            });
+        }
+        log.debug("Evicted cached profile: {}", id);
+    }
+
+    public CacheStats stats() {
+        return cache.synchronous().stats();
+    }
+
+    private Map<Long, Optional<UserProfileDto>> fetch(Set<? extends Long> ids) {
+        Map<Long, Optional<UserProfileDto>> result = new HashMap<>(ids.size() * 2);
+        List<Long> chunk = new ArrayList<>(Math.min(ids.size(), queryBatchSize));
+        for (Long id : ids) {
+            result.put(id, Optional.empty());
+            chunk.add(id);
+            if (chunk.size() == queryBatchSize) {
+                fetchChunk(chunk, result);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            fetchChunk(chunk, result);
+        }
+        return result;
+    }
+
+    private void fetchChunk(List<Long> ids, Map<Long, Optional<UserProfileDto>> result) {
+        queryIds.record(ids.size());
+        for (UserProfile profile : repository.findByIdIn(ids)) {
+            result.put(profile.getId(), Optional.of(UserProfileDto.from(profile)));
+        }
+    }
+
+    private static Expiry<Long, Optional<UserProfileDto>> expiry(long ttlNanos, long negativeTtlNanos) {
+        return new Expiry<>() {
+            @Override
+            public long expireAfterCreate(Long id, Optional<UserProfileDto> value, long currentTime) {
+                return value.isPresent() ? ttlNanos : negativeTtlNanos;
+            }
+
+            @Override
+            public long expireAfterUpdate(Long id, Optional<UserProfileDto> value, long currentTime,
+                                          long currentDuration) {
+                return expireAfterCreate(id, value, currentTime);
+            }
+
+            @Override
+            public long expireAfterRead(Long id, Optional<UserProfileDto> value, long currentTime,
+                                        long currentDuration) {
+                return currentDuration;
+            }
+        };
+    }
+
+    private static <T> T join(Supplier<T> call) {
+        try {
+            return call.get();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+}
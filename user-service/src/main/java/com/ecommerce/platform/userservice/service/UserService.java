@@ -0,0 +1,34 @@
+package com.ecommerce.platform.userservice.service;
+
+import com.ecommerce.platform.userservice.dto.BulkUserResponse;
+import com.ecommerce.platform.userservice.dto.UserProfileDto;
+import com.ecommerce.platform.userservice.dto.UserProfileRequest;
+import com.ecommerce.platform.userservice.exception.UserNotFoundException;
+
+import java.util.List;
+
+public interface UserService {
+
+    /**
+     * @param id идентификатор пользователя
+     * @return профиль пользователя
+     * @throws UserNotFoundException если профиля нет
+     */
+    UserProfileDto getUser(Long id);
+
+    /**
+     * Публичная часть профилей нескольких пользователей (без email и телефона):
+     * промахи кэша загружаются одним запросом к БД
+     * @param ids идентификаторы, повторы допускаются
+     * @return найденные профили в порядке первого появления id и список отсутствующих id
+     */
+    BulkUserResponse getUsers(List<Long> ids);
+
+    /**
+     * Создаёт или обновляет профиль и удаляет его из кэша
+     * @param id идентификатор пользователя
+     * @param request данные профиля
+     * @return сохранённый профиль
+     */
+    UserProfileDto saveUser(Long id, UserProfileRequest request);
+}
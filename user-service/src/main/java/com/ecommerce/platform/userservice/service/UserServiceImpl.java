@@ -0,0 +1,67 @@
+package com.ecommerce.platform.userservice.service;
+
+import com.ecommerce.platform.userservice.dto.BulkUserResponse;
+import com.ecommerce.platform.userservice.dto.UserProfileDto;
+import com.ecommerce.platform.userservice.dto.UserProfileRequest;
+import com.ecommerce.platform.userservice.dto.UserSummaryDto;
+import com.ecommerce.platform.userservice.exception.UserNotFoundException;
+import com.ecommerce.platform.userservice.model.UserProfile;
+import com.ecommerce.platform.userservice.repository.UserProfileRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+public class UserServiceImpl implements UserService {
+
+    private final UserProfileRepository userProfileRepository;
+    private final UserProfileCache userProfileCache;
+
+    @Override
+    public UserProfileDto getUser(Long id) {
+        return userProfileCache.get(id)
+                .orElseThrow(() -> new UserNotFoundException("User not found: " + id));
+    }
+
+    @Override
+    public BulkUserResponse getUsers(List<Long> ids) {
+        Set<Long> distinct = new LinkedHashSet<>(ids);
+        Map<Long, Optional<UserProfileDto>> profiles = userProfileCache.getAll(distinct);
+
+        List<UserSummaryDto> users = new ArrayList<>(distinct.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : distinct) {
+            Optional<UserProfileDto> profile = profiles.getOrDefault(id, Optional.empty());
+            if (profile.isPresent()) {
+                users.add(UserSummaryDto.from(profile.get()));
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return new BulkUserResponse(users, missingIds);
+    }
+
+    @Override
+    @Transactional
+    public UserProfileDto saveUser(Long id, UserProfileRequest request) {
+        UserProfile profile = userProfileRepository.findById(id)
+                .orElseGet(() -> UserProfile.builder().id(id).build());
+        profile.setEmail(request.email());
+        profile.setFirstName(request.firstName());
+        profile.setLastName(request.lastName());
+        profile.setPhone(request.phone());
+        profile.setUpdatedAt(Instant.now());
+        UserProfile saved = userProfileRepository.save(profile);
+        userProfileCache.evict(id);
+        return UserProfileDto.from(saved);
+    }
+}
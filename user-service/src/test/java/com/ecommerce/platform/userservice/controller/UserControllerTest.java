@@ -0,0 +1,71 @@
+package com.ecommerce.platform.userservice.controller;
+
+import com.ecommerce.platform.userservice.dto.BulkUserResponse;
+import com.ecommerce.platform.userservice.dto.UserProfileDto;
+import com.ecommerce.platform.userservice.dto.UserSummaryDto;
+import com.ecommerce.platform.userservice.exception.GlobalExceptionHandler;
+import com.ecommerce.platform.userservice.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class UserControllerTest {
+
+    private final UserService userService = mock(UserService.class);
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.standaloneSetup(new UserController(userService))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+        when(userService.getUser(1L)).thenReturn(
+                new UserProfileDto(1L, "alice@example.com", "Alice", "Smith", "+100"));
+    }
+
+    @Test
+    void ownerAndAdminReadFullProfile() throws Exception {
+        mockMvc.perform(get("/api/users/1").header(UserController.USER_ID_HEADER, "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.email").value("alice@example.com"));
+        mockMvc.perform(get("/api/users/1").header(UserController.USER_ID_HEADER, "2")
+                        .header(UserController.ROLES_HEADER, "ROLE_USER,ROLE_ADMIN"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void otherUserCannotReadProfile() throws Exception {
+        mockMvc.perform(get("/api/users/1").header(UserController.USER_ID_HEADER, "2")
+                        .header(UserController.ROLES_HEADER, "ROLE_USER"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/users/1"))
+                .andExpect(status().isForbidden());
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    void bulkLookupReturnsNamesOnly() throws Exception {
+        when(userService.getUsers(List.of(1L, 5L))).thenReturn(
+                new BulkUserResponse(List.of(new UserSummaryDto(1L, "Alice", "Smith")), List.of(5L)));
+
+        mockMvc.perform(post("/api/users/by-ids").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[1,5]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users[0].firstName").value("Alice"))
+                .andExpect(jsonPath("$.users[0].email").doesNotExist())
+                .andExpect(jsonPath("$.users[0].phone").doesNotExist())
+                .andExpect(jsonPath("$.missingIds[0]").value(5));
+    }
+}
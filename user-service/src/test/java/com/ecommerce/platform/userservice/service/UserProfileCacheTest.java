@@ -0,0 +1,70 @@
+package com.ecommerce.platform.userservice.service;
+
+import com.ecommerce.platform.userservice.config.UserProfileCacheConfig;
+import com.ecommerce.platform.userservice.model.UserProfile;
+import com.ecommerce.platform.userservice.repository.UserProfileRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class UserProfileCacheTest {
+
+    private UserProfileRepository repository;
+    private UserProfileCache cache;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(UserProfileRepository.class);
+        cache = new UserProfileCache(new UserProfileCacheConfig(), repository, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void bulkMissesAreLoadedInOneQueryAndMissingIdsAreCached() {
+        when(repository.findByIdIn(anyCollection())).thenReturn(List.of(profile(1L), profile(3L)));
+
+        var first = cache.getAll(List.of(1L, 2L, 3L));
+        var second = cache.getAll(List.of(1L, 2L, 3L));
+
+        assertTrue(first.get(1L).isPresent());
+        assertTrue(first.get(2L).isEmpty());
+        assertEquals(first, second);
+        verify(repository, times(1)).findByIdIn(anyCollection());
+    }
+
+    @Test
+    void concurrentRequestsForSameIdShareOneLoad() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(repository.findByIdIn(anyCollection())).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().map(UserProfileCacheTest::profile).toList();
+        });
+
+        CompletableFuture<?> first = CompletableFuture.runAsync(() -> cache.get(7L));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        CompletableFuture<?> second = CompletableFuture.runAsync(() -> cache.getAll(List.of(7L)));
+        Thread.sleep(100);
+        release.countDown();
+        CompletableFuture.allOf(first, second).get(5, TimeUnit.SECONDS);
+
+        verify(repository, times(1)).findByIdIn(anyCollection());
+        assertTrue(cache.get(7L).isPresent());
+    }
+
+    private static UserProfile profile(Long id) {
+        return UserProfile.builder().id(id).email("user" + id + "@example.com").updatedAt(Instant.now()).build();
+    }
+}